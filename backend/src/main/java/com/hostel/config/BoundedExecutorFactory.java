@@ -0,0 +1,62 @@
+package com.hostel.config;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates the application's own bounded worker pools (embedding batches, streamed answers).
+ * With {@code spring.threads.virtual.enabled=true} on Java 21+ each task gets a virtual
+ * thread and the bound becomes a concurrency throttle (submitters wait for a permit);
+ * otherwise it is a fixed pool of daemon platform threads with a queue.
+ */
+@Component
+public class BoundedExecutorFactory {
+
+    private static final Logger logger = LoggerFactory.getLogger(BoundedExecutorFactory.class);
+
+    private final boolean virtual;
+
+    public BoundedExecutorFactory(@Value("${spring.threads.virtual.enabled:false}") boolean virtualRequested) {
+        this.virtual = virtualRequested && Runtime.version().feature() >= 21;
+        if (virtualRequested && !virtual) {
+            logger.warn("spring.threads.virtual.enabled is set but Java {} has no virtual threads; using platform threads",
+                    Runtime.version().feature());
+        }
+    }
+
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    public Executor create(String namePrefix, int maxConcurrency) {
+        int limit = Math.max(1, maxConcurrency);
+        if (virtual) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(namePrefix);
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(limit);
+            return executor;
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(limit, runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static void shutdown(Executor executor) {
+        if (executor instanceof ExecutorService service) {
+            service.shutdownNow();
+        } else if (executor instanceof SimpleAsyncTaskExecutor simple) {
+            simple.close();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.hostel.config;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * HTTP Basic re-sends the password on every request, so without caching each call pays a
+ * full BCrypt check plus a user lookup. Successful authentications are remembered for a
+ * short TTL, keyed by an HMAC of username and password under a per-process random key
+ * (the raw password is never stored). Failed attempts are never cached.
+ */
+public class CachingAuthenticationProvider implements AuthenticationProvider {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final AuthenticationProvider delegate;
+    private final Cache<String, Authentication> cache;
+    private final SecretKeySpec key;
+    private final ThreadLocal<Mac> mac;
+
+    public CachingAuthenticationProvider(AuthenticationProvider delegate, Duration ttl, long maxEntries) {
+        this.delegate = delegate;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxEntries)
+                .build();
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        this.key = new SecretKeySpec(secret, HMAC_ALGORITHM);
+        this.mac = ThreadLocal.withInitial(this::newMac);
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        if (!(authentication.getCredentials() instanceof String password)) {
+            return delegate.authenticate(authentication);
+        }
+        String cacheKey = fingerprint(authentication.getName(), password);
+        Authentication cached = cache.getIfPresent(cacheKey);
+        if (cached != null) {
+            return cached;
+        }
+        Authentication result = delegate.authenticate(authentication);
+        if (result != null && result.isAuthenticated()) {
+            cache.put(cacheKey, result);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return UsernamePasswordAuthenticationToken.class.isAssignableFrom(authentication);
+    }
+
+    /**
+     * Drops every cached login for the user, e.g. after a password or role change.
+     */
+    public void evict(String username) {
+        if (username == null) {
+            return;
+        }
+        cache.asMap().values().removeIf(auth -> username.equals(auth.getName()));
+    }
+
+    private String fingerprint(String username, String password) {
+        Mac hmac = mac.get();
+        hmac.update(username.getBytes(StandardCharsets.UTF_8));
+        hmac.update((byte) 0);
+        return Base64.getEncoder().encodeToString(hmac.doFinal(password.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private Mac newMac() {
+        try {
+            Mac hmac = Mac.getInstance(HMAC_ALGORITHM);
+            hmac.init(key);
+            return hmac;
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("HMAC-SHA256 not available", ex);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.hostel.config;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Outbound HTTP for Gemini and Chroma. RestTemplates sit on JDK {@link HttpClient}s (keep-alive
+ * connection pool, connect timeout); each upstream gets its own read timeout, and a shared
+ * per-host limiter bounds concurrency. Gemini is reached over TLS and negotiates HTTP/2;
+ * Chroma is usually a plaintext local server, where an h2c upgrade buys nothing, so it stays
+ * on HTTP/1.1.
+ */
+@Configuration
+public class HttpClientConfig {
+
+    @Value("${http.client.connectTimeoutMs:5000}")
+    private long connectTimeoutMs;
+
+    @Bean
+    public HttpClient geminiHttpClient() {
+        return httpClient(HttpClient.Version.HTTP_2);
+    }
+
+    @Bean
+    public HttpClient chromaHttpClient() {
+        return httpClient(HttpClient.Version.HTTP_1_1);
+    }
+
+    @Bean
+    public PerHostConcurrencyLimiter perHostConcurrencyLimiter(
+            @Value("${http.client.maxPerHost:32}") int maxPerHost,
+            @Value("${http.client.acquireTimeoutMs:2000}") long acquireTimeoutMs) {
+        return new PerHostConcurrencyLimiter(maxPerHost, Duration.ofMillis(acquireTimeoutMs));
+    }
+
+    /**
+     * Used by RagLlmClient and GeminiEmbeddingClient.
+     */
+    @Bean
+    public RestTemplate geminiRestTemplate(PerHostConcurrencyLimiter limiter,
+                                           @Value("${gemini.http.readTimeoutMs:60000}") long readTimeoutMs) {
+        return restTemplate(geminiHttpClient(), limiter, readTimeoutMs);
+    }
+
+    @Bean
+    public RestTemplate chromaRestTemplate(PerHostConcurrencyLimiter limiter,
+                                           @Value("${chroma.http.readTimeoutMs:10000}") long readTimeoutMs) {
+        return restTemplate(chromaHttpClient(), limiter, readTimeoutMs);
+    }
+
+    private HttpClient httpClient(HttpClient.Version version) {
+        return HttpClient.newBuilder()
+                .version(version)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+
+    private RestTemplate restTemplate(HttpClient httpClient, PerHostConcurrencyLimiter limiter, long readTimeoutMs) {
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(Duration.ofMillis(readTimeoutMs));
+        RestTemplate restTemplate = new RestTemplate(requestFactory);
+        restTemplate.getInterceptors().add(limiter);
+        return restTemplate;
+    }
+}
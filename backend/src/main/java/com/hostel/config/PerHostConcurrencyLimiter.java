@@ -0,0 +1,114 @@
+package com.hostel.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+/**
+ * Caps concurrent outbound requests per host across every RestTemplate that shares this
+ * interceptor. A caller that cannot get a permit within the acquire timeout fails fast
+ * instead of queueing behind a slow upstream.
+ * <p>
+ * The permit is held until the response is closed, so streamed bodies count for their
+ * whole duration.
+ */
+public class PerHostConcurrencyLimiter implements ClientHttpRequestInterceptor {
+
+    private final int maxPerHost;
+    private final Duration acquireTimeout;
+    private final Map<String, Semaphore> permits = new ConcurrentHashMap<>();
+
+    public PerHostConcurrencyLimiter(int maxPerHost, Duration acquireTimeout) {
+        this.maxPerHost = maxPerHost;
+        this.acquireTimeout = acquireTimeout;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        String host = request.getURI().getHost();
+        Semaphore semaphore = permits.computeIfAbsent(host == null ? "" : host, ignored -> new Semaphore(maxPerHost));
+        try {
+            if (!semaphore.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new PermitUnavailableException("Too many concurrent requests to " + host, null);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new PermitUnavailableException("Interrupted waiting for a connection to " + host, ex);
+        }
+
+        ClientHttpResponse response;
+        try {
+            response = execution.execute(request, body);
+        } catch (IOException | RuntimeException ex) {
+            semaphore.release();
+            throw ex;
+        }
+        return new PermitReleasingResponse(response, semaphore);
+    }
+
+    /**
+     * Thrown before the request leaves the process, so callers can tell local back-pressure
+     * from an unhealthy upstream.
+     */
+    public static class PermitUnavailableException extends IOException {
+        public PermitUnavailableException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    private static final class PermitReleasingResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse delegate;
+        private final Semaphore semaphore;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        PermitReleasingResponse(ClientHttpResponse delegate, Semaphore semaphore) {
+            this.delegate = delegate;
+            this.semaphore = semaphore;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            return delegate.getBody();
+        }
+
+        @Override
+        public void close() {
+            try {
+                delegate.close();
+            } finally {
+                if (released.compareAndSet(false, true)) {
+                    semaphore.release();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.hostel.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import com.hostel.entity.User;
+
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * JPA listener on {@link User}: any update (password, role) or delete invalidates the
+ * cached logins for that username so stale credentials stop working immediately.
+ */
+@Component
+public class UserChangeListener {
+
+    @Autowired
+    @Lazy
+    private CachingAuthenticationProvider authenticationProvider;
+
+    @PostUpdate
+    @PostRemove
+    public void onUserChanged(User user) {
+        authenticationProvider.evict(user.getUsername());
+    }
+}
@@ -0,0 +1,81 @@
+package com.hostel.config;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import com.hostel.entity.User;
+
+/**
+ * Authenticated principal carrying the user's id, role and name, so controllers can
+ * take it via {@code @AuthenticationPrincipal} instead of reloading the user by username.
+ */
+public class UserPrincipal implements UserDetails, CredentialsContainer {
+
+    private final Long id;
+    private final String username;
+    private final String fullName;
+    private final String role;
+    private final List<GrantedAuthority> authorities;
+    private String password;
+
+    public UserPrincipal(User user) {
+        this.id = user.getId();
+        this.username = user.getUsername();
+        this.fullName = user.getFullName();
+        this.role = user.getRole();
+        this.password = user.getPassword();
+        this.authorities = List.of(new SimpleGrantedAuthority("ROLE_" + user.getRole()));
+    }
+
+    public Long getId() { return id; }
+    public String getFullName() { return fullName; }
+    public String getRole() { return role; }
+
+    public boolean isAdmin() {
+        return "ADMIN".equals(role);
+    }
+
+    /**
+     * Detached {@link User} holding only the identifying fields, for service methods
+     * that filter or authorize by user.
+     */
+    public User toUser() {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        user.setFullName(fullName);
+        user.setRole(role);
+        return user;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() { return authorities; }
+
+    @Override
+    public String getPassword() { return password; }
+
+    @Override
+    public String getUsername() { return username; }
+
+    @Override
+    public boolean isAccountNonExpired() { return true; }
+
+    @Override
+    public boolean isAccountNonLocked() { return true; }
+
+    @Override
+    public boolean isCredentialsNonExpired() { return true; }
+
+    @Override
+    public boolean isEnabled() { return true; }
+
+    @Override
+    public void eraseCredentials() {
+        this.password = null;
+    }
+}
@@ -0,0 +1,78 @@
+package com.hostel.config;
+
+import java.time.Duration;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Pinning diagnostics for the virtual-thread mode. Streams the JFR
+ * {@code jdk.VirtualThreadPinned} event (a virtual thread blocked while holding a monitor,
+ * e.g. I/O inside {@code synchronized}), logs the top frames of each occurrence longer than
+ * {@code virtual.threads.pinnedThresholdMs} and counts them as {@code jvm.threads.virtual.pinned}.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+    private static final int LOGGED_FRAMES = 8;
+
+    private final BoundedExecutorFactory executorFactory;
+    private final Counter pinned;
+    private final long thresholdMs;
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(BoundedExecutorFactory executorFactory, MeterRegistry meterRegistry,
+                                       @Value("${virtual.threads.pinnedThresholdMs:20}") long thresholdMs) {
+        this.executorFactory = executorFactory;
+        this.thresholdMs = thresholdMs;
+        this.pinned = Counter.builder("jvm.threads.virtual.pinned")
+                .description("Virtual threads that blocked while pinned to their carrier")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!executorFactory.isVirtual()) {
+            return;
+        }
+        stream = new RecordingStream();
+        stream.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ofMillis(thresholdMs)).withStackTrace();
+        stream.onEvent("jdk.VirtualThreadPinned", this::onPinned);
+        stream.startAsync();
+        logger.info("Virtual thread pinning monitor started (threshold {} ms)", thresholdMs);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinned.increment();
+        String frames = event.getStackTrace() == null ? "(no stack trace)" : event.getStackTrace().getFrames().stream()
+                .limit(LOGGED_FRAMES)
+                .map(this::describe)
+                .collect(Collectors.joining("\n\tat ", "\tat ", ""));
+        logger.warn("Virtual thread pinned for {} ms:\n{}", event.getDuration().toMillis(), frames);
+    }
+
+    private String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+}
@@ -3,10 +3,13 @@ package com.hostel.controller;
 import com.hostel.dto.AdminQuestionRequest;
 import com.hostel.dto.AgentAnswerResponse;
 import com.hostel.service.AgentQaService;
+import com.hostel.service.QaAnswerStreamer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/api/admin/qa")
@@ -16,10 +19,20 @@ public class AdminQaController {
     @Autowired
     private AgentQaService agentQaService;
 
+    @Autowired
+    private QaAnswerStreamer answerStreamer;
+
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<AgentAnswerResponse> askAdminQuestion(@RequestBody AdminQuestionRequest request) {
         String answer = agentQaService.answerAdminQuestion(request.getQuestion(), request.getUserId());
         return ResponseEntity.ok(new AgentAnswerResponse(answer));
     }
+
+    @PostMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public SseEmitter streamAdminAnswer(@RequestBody AdminQuestionRequest request) {
+        return answerStreamer.stream(sink ->
+                agentQaService.streamAdminQuestion(request.getQuestion(), request.getUserId(), sink));
+    }
 }
@@ -0,0 +1,32 @@
+package com.hostel.controller;
+
+import com.hostel.dto.VectorSyncStatusDTO;
+import com.hostel.service.VectorResyncJob;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/admin/vector-sync")
+@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:3001"})
+public class AdminVectorSyncController {
+
+    @Autowired
+    private VectorResyncJob resyncJob;
+
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<VectorSyncStatusDTO> getStatus() {
+        return ResponseEntity.ok(resyncJob.status());
+    }
+
+    // 202 when a run was started, 409 when one is already in progress
+    @PostMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<VectorSyncStatusDTO> startSync(@RequestParam(defaultValue = "true") boolean resume) {
+        boolean started = resyncJob.start(resume);
+        return ResponseEntity.status(started ? HttpStatus.ACCEPTED : HttpStatus.CONFLICT).body(resyncJob.status());
+    }
+}
@@ -3,9 +3,12 @@ package com.hostel.controller;
 import com.hostel.dto.AgentAnswerResponse;
 import com.hostel.dto.AgentQuestionRequest;
 import com.hostel.service.AgentQaService;
+import com.hostel.service.QaAnswerStreamer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/api/clients/qa")
@@ -15,9 +18,18 @@ public class AgentQaController {
     @Autowired
     private AgentQaService agentQaService;
 
+    @Autowired
+    private QaAnswerStreamer answerStreamer;
+
     @PostMapping
     public ResponseEntity<AgentAnswerResponse> askQuestion(@RequestBody AgentQuestionRequest request) {
         String answer = agentQaService.answerQuestion(request.getQuestion(), request.getUserId());
         return ResponseEntity.ok(new AgentAnswerResponse(answer));
     }
+
+    @PostMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAnswer(@RequestBody AgentQuestionRequest request) {
+        return answerStreamer.stream(sink ->
+                agentQaService.streamQuestion(request.getQuestion(), request.getUserId(), sink));
+    }
 }
@@ -2,6 +2,7 @@ package com.hostel.controller;
 
 import com.hostel.dto.AiGenerateComplaintRequest;
 import com.hostel.dto.ComplaintDTO;
+import com.hostel.exception.LlmUnavailableException;
 import com.hostel.service.AiComplaintService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -32,10 +33,14 @@ public class AiComplaintController {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Authentication required");
         }
         try {
-            ComplaintDTO created = aiComplaintService.generateComplaint(request.getDescription(), authentication.getName());
-            return ResponseEntity.status(HttpStatus.CREATED).body(created);
+            ComplaintDTO created = aiComplaintService.generateComplaint(request.getDescription(),
+                    authentication.getName(), request.isAllowDuplicate());
+            return ResponseEntity.status(created.isLinkedToExisting() ? HttpStatus.OK : HttpStatus.CREATED).body(created);
         } catch (IllegalArgumentException ex) {
             return ResponseEntity.badRequest().body(ex.getMessage());
+        } catch (LlmUnavailableException ex) {
+            // 503 + Retry-After from GlobalExceptionHandler
+            throw ex;
         } catch (Exception ex) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("AI complaint generation failed");
         }
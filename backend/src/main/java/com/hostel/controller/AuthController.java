@@ -1,5 +1,6 @@
 package com.hostel.controller;
 
+import com.hostel.config.UserPrincipal;
 import com.hostel.dto.AuthResponse;
 import com.hostel.dto.SignupRequest;
 import com.hostel.entity.User;
@@ -7,7 +8,7 @@ import com.hostel.service.AuthService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -33,20 +34,18 @@ public class AuthController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<?> login(Authentication authentication) {
-        if (authentication != null && authentication.isAuthenticated()) {
-            User user = authService.findByUsername(authentication.getName());
-            return ResponseEntity.ok(new AuthResponse("Login successful", user.getId(), user.getUsername(), user.getRole()));
+    public ResponseEntity<?> login(@AuthenticationPrincipal UserPrincipal principal) {
+        if (principal != null) {
+            return ResponseEntity.ok(new AuthResponse("Login successful", principal.getId(), principal.getUsername(), principal.getRole()));
         }
         return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                 .body(new AuthResponse("Invalid credentials", null, null, null));
     }
 
     @GetMapping("/me")
-    public ResponseEntity<?> getCurrentUser(Authentication authentication) {
-        if (authentication != null && authentication.isAuthenticated()) {
-            User user = authService.findByUsername(authentication.getName());
-            return ResponseEntity.ok(new AuthResponse("User found", user.getId(), user.getUsername(), user.getRole()));
+    public ResponseEntity<?> getCurrentUser(@AuthenticationPrincipal UserPrincipal principal) {
+        if (principal != null) {
+            return ResponseEntity.ok(new AuthResponse("User found", principal.getId(), principal.getUsername(), principal.getRole()));
         }
         return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
     }
@@ -1,11 +1,12 @@
 package com.hostel.controller;
 
+import com.hostel.config.UserPrincipal;
 import com.hostel.dto.ComplaintDTO;
+import com.hostel.dto.ComplaintPageDTO;
 import com.hostel.dto.CreateComplaintRequest;
 import com.hostel.dto.UpdateStatusRequest;
 import com.hostel.entity.User;
 import com.hostel.service.ComplaintService;
-import com.hostel.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -13,11 +14,11 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.lang.NonNull;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import org.springframework.web.multipart.MultipartFile;
 
@@ -31,11 +32,11 @@ import java.util.List;
 @CrossOrigin(origins = {"http://localhost:3000", "http://localhost:3001"})
 public class ComplaintController {
 
-    @Autowired
-    private ComplaintService complaintService;
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final String NDJSON = "application/x-ndjson";
 
     @Autowired
-    private UserRepository userRepository;
+    private ComplaintService complaintService;
 
     @PreAuthorize("hasRole('CLIENT')")
     @PostMapping
@@ -43,24 +44,28 @@ public class ComplaintController {
             @ModelAttribute @NonNull CreateComplaintRequest request,
             @RequestPart(value = "image", required = false) MultipartFile image) {
         ComplaintDTO complaint = complaintService.createComplaint(request, image);
-        return ResponseEntity.status(HttpStatus.CREATED).body(complaint);
+        // 200 rather than 201 when the student was linked to an existing complaint
+        return ResponseEntity.status(complaint.isLinkedToExisting() ? HttpStatus.OK : HttpStatus.CREATED).body(complaint);
     }
 
 
     @GetMapping
-    public ResponseEntity<List<ComplaintDTO>> getAllComplaints(Authentication authentication) {
-        // Get logged-in user
-        User user = userRepository.findByUsername(authentication.getName())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        
-        // Get user role
-        String role = authentication.getAuthorities().stream()
-                .map(GrantedAuthority::getAuthority)
-                .filter(auth -> auth.startsWith("ROLE_"))
-                .map(auth -> auth.substring(5)) // Remove "ROLE_" prefix
-                .findFirst()
-                .orElse("CLIENT");
-        
+    public ResponseEntity<List<ComplaintDTO>> getAllComplaints(
+            @AuthenticationPrincipal UserPrincipal principal,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size) {
+        User user = principal.toUser();
+        String role = principal.getRole();
+
+        // Paged mode as soon as the client asks for a page; the unpaged list is kept for older clients
+        if (cursor != null || size != null) {
+            int pageSize = size != null ? size : ComplaintService.DEFAULT_PAGE_SIZE;
+            ComplaintPageDTO page = complaintService.getComplaintsPage(user, role, cursor, pageSize);
+            return ResponseEntity.ok()
+                    .headers(pageHeaders(page, pageSize))
+                    .body(page.getItems());
+        }
+
         // ADMIN sees all complaints, CLIENT sees only their own
         if ("ADMIN".equals(role)) {
             return ResponseEntity.ok(complaintService.getAllComplaints());
@@ -69,45 +74,50 @@ public class ComplaintController {
         }
     }
 
+    @GetMapping(produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamAllComplaints(@AuthenticationPrincipal UserPrincipal principal) {
+        User user = principal.toUser();
+        String role = principal.getRole();
+
+        StreamingResponseBody stream = outputStream -> complaintService.streamComplaintsNdjson(user, role, outputStream);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .body(stream);
+    }
+
     @GetMapping("/search")
     public ResponseEntity<List<ComplaintDTO>> searchComplaints(
-            Authentication authentication,
+            @AuthenticationPrincipal UserPrincipal principal,
             @RequestParam(value = "q", required = false) String query,
             @RequestParam(value = "agent", required = false) String agent,
             @RequestParam(value = "fromDate", required = false)
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
             @RequestParam(value = "toDate", required = false)
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
-            @RequestParam(value = "category", required = false) com.hostel.entity.Category category
+            @RequestParam(value = "category", required = false) com.hostel.entity.Category category,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size
     ) {
-        User user = userRepository.findByUsername(authentication.getName())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        String role = authentication.getAuthorities().stream()
-                .map(GrantedAuthority::getAuthority)
-                .filter(auth -> auth.startsWith("ROLE_"))
-                .map(auth -> auth.substring(5))
-                .findFirst()
-                .orElse("CLIENT");
-
-        List<ComplaintDTO> result = complaintService.searchComplaints(query, agent, fromDate, toDate, category, user, role);
-        return ResponseEntity.ok(result);
+        User user = principal.toUser();
+        String role = principal.getRole();
+
+        // Same contract as GET /api/complaints: paged only when the client asks for a page
+        if (cursor == null && size == null) {
+            return ResponseEntity.ok(complaintService.searchAllComplaints(query, agent, fromDate, toDate, category, user, role));
+        }
+
+        int pageSize = size != null ? size : ComplaintService.DEFAULT_PAGE_SIZE;
+        ComplaintPageDTO page = complaintService.searchComplaints(query, agent, fromDate, toDate, category, user, role, cursor, pageSize);
+        return ResponseEntity.ok()
+                .headers(pageHeaders(page, pageSize))
+                .body(page.getItems());
     }
 
     @GetMapping("/{id:\\d+}")
-    public ResponseEntity<ComplaintDTO> getComplaintById(@PathVariable @NonNull Long id, Authentication authentication) {
-        // Get logged-in user
-        User user = userRepository.findByUsername(authentication.getName())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        
-        // Get user role
-        String role = authentication.getAuthorities().stream()
-                .map(GrantedAuthority::getAuthority)
-                .filter(auth -> auth.startsWith("ROLE_"))
-                .map(auth -> auth.substring(5)) // Remove "ROLE_" prefix
-                .findFirst()
-                .orElse("CLIENT");
-        
+    public ResponseEntity<ComplaintDTO> getComplaintById(@PathVariable @NonNull Long id, @AuthenticationPrincipal UserPrincipal principal) {
+        User user = principal.toUser();
+        String role = principal.getRole();
+
         return ResponseEntity.ok(complaintService.getComplaintByIdWithAuth(id, user, role));
     }
 
@@ -118,6 +128,20 @@ public class ComplaintController {
         return ResponseEntity.ok(complaintService.updateStatus(id, request.getStatus()));
     }
 
+    // The body stays a plain list for existing clients; the next cursor travels in headers
+    private HttpHeaders pageHeaders(ComplaintPageDTO page, int size) {
+        HttpHeaders headers = new HttpHeaders();
+        if (page.getNextCursor() != null) {
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("cursor", page.getNextCursor())
+                    .replaceQueryParam("size", size)
+                    .toUriString();
+            headers.add(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+            headers.add(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return headers;
+    }
+
     @GetMapping(value = "/export-all", produces = "text/csv")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<StreamingResponseBody> exportComplaints() {
@@ -4,6 +4,7 @@ import com.hostel.dto.QaHistoryDTO;
 import com.hostel.dto.AiAnalyticsDTO;
 import com.hostel.dto.AiDailyCountDTO;
 import com.hostel.entity.QaHistory;
+import com.hostel.repository.QaDailyRollupRepository;
 import com.hostel.repository.QaHistoryRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -11,8 +12,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
-import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -25,6 +25,9 @@ public class QaHistoryController {
     @Autowired
     private QaHistoryRepository qaHistoryRepository;
 
+    @Autowired
+    private QaDailyRollupRepository qaDailyRollupRepository;
+
     @GetMapping("/{userId}")
     public ResponseEntity<List<QaHistoryDTO>> getHistoryForUser(@PathVariable Long userId) {
         List<QaHistory> history = qaHistoryRepository.findTop20ByUserIdOrderByAskedAtDesc(userId);
@@ -36,99 +39,58 @@ public class QaHistoryController {
 
     @GetMapping("/analytics/global")
     public ResponseEntity<AiAnalyticsDTO> getGlobalAnalytics() {
-        List<QaHistory> all = qaHistoryRepository.findAll();
-        if (all.isEmpty()) {
+        List<Object[]> rows = qaHistoryRepository.aggregateTotals();
+        Object[] row = rows.isEmpty() ? null : rows.get(0);
+        long total = row != null ? ((Number) row[0]).longValue() : 0;
+        if (total == 0) {
             return ResponseEntity.ok(new AiAnalyticsDTO(0, 0, 0, 0, 0, null, null));
         }
 
-        long total = all.size();
-        long totalAdmin = all.stream().filter(QaHistory::isAdmin).count();
-        long totalUser = total - totalAdmin;
-        long errorCount = all.stream()
-                .filter(h -> isErrorAnswer(h.getAnswer()))
-                .count();
-        long successCount = total - errorCount;
-
-        QaHistory first = all.stream().min(Comparator.comparing(QaHistory::getAskedAt)).orElse(all.get(0));
-        QaHistory last = all.stream().max(Comparator.comparing(QaHistory::getAskedAt)).orElse(all.get(all.size() - 1));
+        long totalAdmin = ((Number) row[1]).longValue();
+        long errorCount = ((Number) row[2]).longValue();
 
         AiAnalyticsDTO dto = new AiAnalyticsDTO(
             total,
             totalAdmin,
-            totalUser,
-            successCount,
+            total - totalAdmin,
+            total - errorCount,
             errorCount,
-            first.getAskedAt().toLocalDate(),
-            last.getAskedAt().toLocalDate()
+            toLocalDate(row[3]),
+            toLocalDate(row[4])
         );
         return ResponseEntity.ok(dto);
     }
 
     @GetMapping("/analytics/user/{userId}")
     public ResponseEntity<AiAnalyticsDTO> getUserAnalytics(@PathVariable Long userId) {
-        List<QaHistory> history = qaHistoryRepository.findTop20ByUserIdOrderByAskedAtDesc(userId);
-        if (history.isEmpty()) {
+        List<Object[]> rows = qaDailyRollupRepository.totalsForUser(userId);
+        Object[] row = rows.isEmpty() ? null : rows.get(0);
+        long total = row != null && row[0] != null ? ((Number) row[0]).longValue() : 0;
+        if (total == 0) {
             return ResponseEntity.ok(new AiAnalyticsDTO(0, 0, 0, 0, 0, null, null));
         }
 
-        long total = history.size();
-        long totalAdmin = history.stream().filter(QaHistory::isAdmin).count();
-        long totalUser = total - totalAdmin;
-        long errorCount = history.stream()
-                .filter(h -> isErrorAnswer(h.getAnswer()))
-                .count();
-        long successCount = total - errorCount;
-
-        QaHistory first = history.get(history.size() - 1);
-        QaHistory last = history.get(0);
+        long totalAdmin = ((Number) row[1]).longValue();
+        long errorCount = ((Number) row[2]).longValue();
 
         AiAnalyticsDTO dto = new AiAnalyticsDTO(
             total,
             totalAdmin,
-            totalUser,
-            successCount,
+            total - totalAdmin,
+            total - errorCount,
             errorCount,
-            first.getAskedAt().toLocalDate(),
-            last.getAskedAt().toLocalDate()
+            toLocalDate(row[3]),
+            toLocalDate(row[4])
         );
         return ResponseEntity.ok(dto);
     }
 
-        private boolean isErrorAnswer(String answer) {
-        if (answer == null) return false;
-        String a = answer.toLowerCase();
-        return a.startsWith("error calling llm api")
-            || a.contains("no response from llm api")
-            || a.contains("unexpected response format from llm api")
-            || a.contains("llm configuration is missing");
-        }
-
         @GetMapping("/analytics/global/daily")
         public ResponseEntity<List<AiDailyCountDTO>> getGlobalDailyCounts(@RequestParam(defaultValue = "7") int days) {
         if (days <= 0) days = 7;
         LocalDate today = LocalDate.now();
         LocalDate start = today.minusDays(days - 1);
-        LocalDateTime from = start.atStartOfDay();
-        LocalDateTime to = today.atTime(LocalTime.MAX);
-
-        List<QaHistory> all = qaHistoryRepository.findAll().stream()
-            .filter(h -> !h.getAskedAt().isBefore(from) && !h.getAskedAt().isAfter(to))
-            .collect(Collectors.toList());
-
-        Map<LocalDate, List<QaHistory>> byDate = all.stream()
-            .collect(Collectors.groupingBy(h -> h.getAskedAt().toLocalDate()));
-
-        List<AiDailyCountDTO> result = start.datesUntil(today.plusDays(1))
-            .map(date -> {
-                List<QaHistory> list = byDate.getOrDefault(date, List.of());
-                long total = list.size();
-                long admin = list.stream().filter(QaHistory::isAdmin).count();
-                long user = total - admin;
-                return new AiDailyCountDTO(date, total, admin, user);
-            })
-            .collect(Collectors.toList());
-
-        return ResponseEntity.ok(result);
+        return ResponseEntity.ok(toDailyCounts(start, today, qaDailyRollupRepository.countDaily(start, today)));
         }
 
         @GetMapping("/analytics/user/{userId}/daily")
@@ -137,26 +99,33 @@ public class QaHistoryController {
         if (days <= 0) days = 7;
         LocalDate today = LocalDate.now();
         LocalDate start = today.minusDays(days - 1);
-        LocalDateTime from = start.atStartOfDay();
-        LocalDateTime to = today.atTime(LocalTime.MAX);
-
-        List<QaHistory> history = qaHistoryRepository.findTop20ByUserIdOrderByAskedAtDesc(userId).stream()
-            .filter(h -> !h.getAskedAt().isBefore(from) && !h.getAskedAt().isAfter(to))
-            .collect(Collectors.toList());
+        return ResponseEntity.ok(toDailyCounts(start, today, qaDailyRollupRepository.countDailyForUser(userId, start, today)));
+        }
 
-        Map<LocalDate, List<QaHistory>> byDate = history.stream()
-            .collect(Collectors.groupingBy(h -> h.getAskedAt().toLocalDate()));
+        // Fills in zero rows for days without questions; rows are [day, total, admin]
+        private List<AiDailyCountDTO> toDailyCounts(LocalDate start, LocalDate end, List<Object[]> rows) {
+        Map<LocalDate, Object[]> byDate = new HashMap<>();
+        for (Object[] row : rows) {
+            byDate.put(toLocalDate(row[0]), row);
+        }
 
-        List<AiDailyCountDTO> result = start.datesUntil(today.plusDays(1))
+        return start.datesUntil(end.plusDays(1))
             .map(date -> {
-                List<QaHistory> list = byDate.getOrDefault(date, List.of());
-                long total = list.size();
-                long admin = list.stream().filter(QaHistory::isAdmin).count();
-                long user = total - admin;
-                return new AiDailyCountDTO(date, total, admin, user);
+                Object[] row = byDate.get(date);
+                long total = row != null ? ((Number) row[1]).longValue() : 0;
+                long admin = row != null ? ((Number) row[2]).longValue() : 0;
+                return new AiDailyCountDTO(date, total, admin, total - admin);
             })
             .collect(Collectors.toList());
+        }
 
-        return ResponseEntity.ok(result);
+        // Native date/timestamp columns come back as java.sql types or java.time depending on the driver mapping
+        private static LocalDate toLocalDate(Object value) {
+        if (value == null) return null;
+        if (value instanceof LocalDate date) return date;
+        if (value instanceof LocalDateTime dateTime) return dateTime.toLocalDate();
+        if (value instanceof java.sql.Timestamp timestamp) return timestamp.toLocalDateTime().toLocalDate();
+        if (value instanceof java.sql.Date date) return date.toLocalDate();
+        return LocalDate.parse(value.toString().substring(0, 10));
         }
 }
@@ -2,9 +2,13 @@ package com.hostel.dto;
 
 public class AiGenerateComplaintRequest {
     private String description;
+    // Skip duplicate detection when the student insists their problem is a different one
+    private boolean allowDuplicate;
 
     public AiGenerateComplaintRequest() {}
 
     public String getDescription() { return description; }
     public void setDescription(String description) { this.description = description; }
+    public boolean isAllowDuplicate() { return allowDuplicate; }
+    public void setAllowDuplicate(boolean allowDuplicate) { this.allowDuplicate = allowDuplicate; }
 }
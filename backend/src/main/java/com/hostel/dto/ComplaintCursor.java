@@ -0,0 +1,53 @@
+package com.hostel.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor over complaints. Plain listings are ordered by
+ * (createdAt DESC, id DESC); text searches by (rank DESC, id DESC), where the
+ * rank is either the full-text rank or the trigram similarity ({@code fuzzy}).
+ */
+public record ComplaintCursor(LocalDateTime createdAt, Float rank, boolean fuzzy, Long id) {
+
+    public static ComplaintCursor byCreatedAt(LocalDateTime createdAt, Long id) {
+        return new ComplaintCursor(createdAt, null, false, id);
+    }
+
+    public static ComplaintCursor byRank(float rank, boolean fuzzy, Long id) {
+        return new ComplaintCursor(null, rank, fuzzy, id);
+    }
+
+    public boolean ranked() {
+        return rank != null;
+    }
+
+    public String encode() {
+        String raw;
+        if (ranked()) {
+            raw = (fuzzy ? "f|" : "r|") + rank + "|" + id;
+        } else {
+            raw = "t|" + createdAt + "|" + id;
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ComplaintCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|");
+            Long id = Long.parseLong(parts[2]);
+            return switch (parts[0]) {
+                case "t" -> byCreatedAt(LocalDateTime.parse(parts[1]), id);
+                case "r" -> byRank(Float.parseFloat(parts[1]), false, id);
+                case "f" -> byRank(Float.parseFloat(parts[1]), true, id);
+                default -> throw new IllegalArgumentException();
+            };
+        } catch (Exception ex) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+    }
+}
@@ -37,6 +37,8 @@ public class ComplaintDTO {
     private String studentName;
     private LocalDate complaintDate;
     private String type;
+    private int meTooCount;
+    private boolean linkedToExisting;
 
     public ComplaintDTO() {}
 
@@ -96,4 +98,8 @@ public class ComplaintDTO {
     public void setComplaintDate(LocalDate complaintDate) { this.complaintDate = complaintDate; }
     public String getType() { return type; }
     public void setType(String type) { this.type = type; }
+    public int getMeTooCount() { return meTooCount; }
+    public void setMeTooCount(int meTooCount) { this.meTooCount = meTooCount; }
+    public boolean isLinkedToExisting() { return linkedToExisting; }
+    public void setLinkedToExisting(boolean linkedToExisting) { this.linkedToExisting = linkedToExisting; }
 }
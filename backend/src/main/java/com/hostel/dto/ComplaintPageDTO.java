@@ -0,0 +1,20 @@
+package com.hostel.dto;
+
+import java.util.List;
+
+public class ComplaintPageDTO {
+    private List<ComplaintDTO> items;
+    private String nextCursor;
+
+    public ComplaintPageDTO() {}
+
+    public ComplaintPageDTO(List<ComplaintDTO> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<ComplaintDTO> getItems() { return items; }
+    public void setItems(List<ComplaintDTO> items) { this.items = items; }
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+}
@@ -17,6 +17,8 @@ public class CreateComplaintRequest {
     private String timeSlot;
     private String description;
     private Long userId;
+    // Skip duplicate detection when the student insists their problem is a different one
+    private boolean allowDuplicate;
 
     public CreateComplaintRequest() {}
 
@@ -46,4 +48,6 @@ public class CreateComplaintRequest {
     public void setDescription(String description) { this.description = description; }
     public Long getUserId() { return userId; }
     public void setUserId(Long userId) { this.userId = userId; }
+    public boolean isAllowDuplicate() { return allowDuplicate; }
+    public void setAllowDuplicate(boolean allowDuplicate) { this.allowDuplicate = allowDuplicate; }
 }
@@ -8,6 +8,8 @@ public class DashboardStatsDTO {
     private Long inProgress;
     private Long resolved;
     private Map<String, Long> categoryCounts;
+    private Map<String, Map<String, Long>> statusCategoryCounts;
+    private Map<String, Long> priorityCounts;
 
     public DashboardStatsDTO() {}
 
@@ -19,6 +21,13 @@ public class DashboardStatsDTO {
         this.categoryCounts = categoryCounts;
     }
 
+    public DashboardStatsDTO(Long total, Long open, Long inProgress, Long resolved, Map<String, Long> categoryCounts,
+                             Map<String, Map<String, Long>> statusCategoryCounts, Map<String, Long> priorityCounts) {
+        this(total, open, inProgress, resolved, categoryCounts);
+        this.statusCategoryCounts = statusCategoryCounts;
+        this.priorityCounts = priorityCounts;
+    }
+
     public Long getTotal() {
         return total;
     }
@@ -58,4 +67,20 @@ public class DashboardStatsDTO {
     public void setCategoryCounts(Map<String, Long> categoryCounts) {
         this.categoryCounts = categoryCounts;
     }
+
+    public Map<String, Map<String, Long>> getStatusCategoryCounts() {
+        return statusCategoryCounts;
+    }
+
+    public void setStatusCategoryCounts(Map<String, Map<String, Long>> statusCategoryCounts) {
+        this.statusCategoryCounts = statusCategoryCounts;
+    }
+
+    public Map<String, Long> getPriorityCounts() {
+        return priorityCounts;
+    }
+
+    public void setPriorityCounts(Map<String, Long> priorityCounts) {
+        this.priorityCounts = priorityCounts;
+    }
 }
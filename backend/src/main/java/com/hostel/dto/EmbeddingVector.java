@@ -0,0 +1,130 @@
+package com.hostel.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * An embedding backed by a primitive {@code float[]}. Serialized as a plain JSON number array,
+ * written and read token by token so no boxed intermediate list is built. The backing array
+ * is shared, not copied; callers must not modify what {@link #values()} returns.
+ */
+@JsonSerialize(using = EmbeddingVector.Serializer.class)
+@JsonDeserialize(using = EmbeddingVector.Deserializer.class)
+public final class EmbeddingVector {
+
+    private static final EmbeddingVector EMPTY = new EmbeddingVector(new float[0]);
+
+    private final float[] values;
+
+    private EmbeddingVector(float[] values) {
+        this.values = values;
+    }
+
+    public static EmbeddingVector of(float[] values) {
+        return values == null || values.length == 0 ? EMPTY : new EmbeddingVector(values);
+    }
+
+    public static EmbeddingVector empty() {
+        return EMPTY;
+    }
+
+    public float[] values() {
+        return values;
+    }
+
+    public int dimensions() {
+        return values.length;
+    }
+
+    public boolean isEmpty() {
+        return values.length == 0;
+    }
+
+    /** Copy of {@code values} scaled to unit length, so cosine similarity becomes a dot product. */
+    public static float[] normalize(float[] values) {
+        double norm = Math.sqrt(dot(values, values));
+        float[] unit = Arrays.copyOf(values, values.length);
+        if (norm > 0) {
+            for (int i = 0; i < unit.length; i++) {
+                unit[i] /= norm;
+            }
+        }
+        return unit;
+    }
+
+    // Four independent accumulators break the add dependency chain so the loop pipelines
+    public static float dot(float[] a, float[] b) {
+        float s0 = 0f, s1 = 0f, s2 = 0f, s3 = 0f;
+        int i = 0;
+        for (int bound = a.length & ~3; i < bound; i += 4) {
+            s0 += a[i] * b[i];
+            s1 += a[i + 1] * b[i + 1];
+            s2 += a[i + 2] * b[i + 2];
+            s3 += a[i + 3] * b[i + 3];
+        }
+        for (; i < a.length; i++) {
+            s0 += a[i] * b[i];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        return o instanceof EmbeddingVector other && Arrays.equals(values, other.values);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(values);
+    }
+
+    @Override
+    public String toString() {
+        return "EmbeddingVector[" + values.length + "]";
+    }
+
+    public static class Serializer extends JsonSerializer<EmbeddingVector> {
+        @Override
+        public void serialize(EmbeddingVector vector, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            float[] values = vector.values;
+            gen.writeStartArray(vector, values.length);
+            for (float value : values) {
+                gen.writeNumber(value);
+            }
+            gen.writeEndArray();
+        }
+    }
+
+    public static class Deserializer extends JsonDeserializer<EmbeddingVector> {
+        @Override
+        public EmbeddingVector deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            if (!parser.isExpectedStartArrayToken()) {
+                return (EmbeddingVector) context.handleUnexpectedToken(EmbeddingVector.class, parser);
+            }
+            float[] values = new float[1024];
+            int size = 0;
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token != JsonToken.VALUE_NUMBER_FLOAT && token != JsonToken.VALUE_NUMBER_INT) {
+                    return (EmbeddingVector) context.handleUnexpectedToken(EmbeddingVector.class, parser);
+                }
+                if (size == values.length) {
+                    values = Arrays.copyOf(values, size * 2);
+                }
+                values[size++] = parser.getFloatValue();
+            }
+            return of(size == values.length ? values : Arrays.copyOf(values, size));
+        }
+    }
+}
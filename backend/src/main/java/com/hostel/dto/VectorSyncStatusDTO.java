@@ -0,0 +1,99 @@
+package com.hostel.dto;
+
+import java.time.LocalDateTime;
+
+public class VectorSyncStatusDTO {
+
+    private String state;
+    private boolean running;
+    private long lastIndexedId;
+    private long indexedCount;
+    private long totalCount;
+    private double percentComplete;
+    private LocalDateTime startedAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime completedAt;
+    private String lastError;
+
+    public VectorSyncStatusDTO() {}
+
+    public String getState() {
+        return state;
+    }
+
+    public void setState(String state) {
+        this.state = state;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public void setRunning(boolean running) {
+        this.running = running;
+    }
+
+    public long getLastIndexedId() {
+        return lastIndexedId;
+    }
+
+    public void setLastIndexedId(long lastIndexedId) {
+        this.lastIndexedId = lastIndexedId;
+    }
+
+    public long getIndexedCount() {
+        return indexedCount;
+    }
+
+    public void setIndexedCount(long indexedCount) {
+        this.indexedCount = indexedCount;
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    public void setTotalCount(long totalCount) {
+        this.totalCount = totalCount;
+    }
+
+    public double getPercentComplete() {
+        return percentComplete;
+    }
+
+    public void setPercentComplete(double percentComplete) {
+        this.percentComplete = percentComplete;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+}
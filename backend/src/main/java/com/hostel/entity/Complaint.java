@@ -5,20 +5,28 @@ import java.time.LocalDateTime;
 
 import org.hibernate.annotations.CreationTimestamp;
 
+import com.hostel.service.ComplaintChangeListener;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
 
 @Entity
-@Table(name = "complaints")
+@EntityListeners(ComplaintChangeListener.class)
+@Table(name = "complaints", indexes = {
+        @Index(name = "idx_complaints_created_at_id", columnList = "created_at DESC, id DESC"),
+        @Index(name = "idx_complaints_raised_by_created_at_id", columnList = "raised_by, created_at DESC, id DESC")
+})
 public class Complaint {
     
     @Id
@@ -103,6 +111,10 @@ public class Complaint {
 
     @Column(name = "type")
     private String type;
+
+    // Students linked to this complaint as duplicates; see ComplaintEndorsement
+    @Column(name = "me_too_count")
+    private Integer meTooCount;
     
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
@@ -324,6 +336,14 @@ public class Complaint {
         this.type = type;
     }
 
+    public Integer getMeTooCount() {
+        return meTooCount;
+    }
+
+    public void setMeTooCount(Integer meTooCount) {
+        this.meTooCount = meTooCount;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
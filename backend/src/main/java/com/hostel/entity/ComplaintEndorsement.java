@@ -0,0 +1,69 @@
+package com.hostel.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A "me too" on an open complaint: another student reported the same problem and was linked
+ * to the existing ticket instead of opening a new one.
+ */
+@Entity
+@Table(name = "complaint_endorsements", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_complaint_endorsements_complaint_user", columnNames = {"complaint_id", "user_id"})
+})
+public class ComplaintEndorsement {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "complaint_id", nullable = false)
+    private Long complaintId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "room_no")
+    private String roomNo;
+
+    @Column(columnDefinition = "TEXT")
+    private String description;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public ComplaintEndorsement() {}
+
+    public ComplaintEndorsement(Long complaintId, Long userId, String roomNo, String description) {
+        this.complaintId = complaintId;
+        this.userId = userId;
+        this.roomNo = roomNo;
+        this.description = description;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getComplaintId() {
+        return complaintId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getRoomNo() {
+        return roomNo;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,44 @@
+package com.hostel.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Persistent tier of the embedding cache: one packed little-endian float32 vector per
+ * (model, content hash), so unchanged text is never sent to the embedding API twice.
+ */
+@Entity
+@Table(name = "embedding_cache")
+public class EmbeddingCacheEntry {
+
+    @EmbeddedId
+    private EmbeddingCacheId id;
+
+    @Column(name = "vector", nullable = false, columnDefinition = "bytea")
+    private byte[] vector;
+
+    @Column(name = "dimensions", nullable = false)
+    private int dimensions;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public EmbeddingCacheEntry() {}
+
+    public EmbeddingCacheId getId() {
+        return id;
+    }
+
+    public byte[] getVector() {
+        return vector;
+    }
+
+    public int getDimensions() {
+        return dimensions;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
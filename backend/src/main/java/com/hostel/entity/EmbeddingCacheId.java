@@ -0,0 +1,45 @@
+package com.hostel.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+@Embeddable
+public class EmbeddingCacheId implements Serializable {
+
+    @Column(name = "model", nullable = false, length = 100)
+    private String model;
+
+    // Hex SHA-256 of the (already PII-masked) text that was embedded
+    @Column(name = "content_hash", nullable = false, length = 64)
+    private String contentHash;
+
+    public EmbeddingCacheId() {}
+
+    public EmbeddingCacheId(String model, String contentHash) {
+        this.model = model;
+        this.contentHash = contentHash;
+    }
+
+    public String getModel() {
+        return model;
+    }
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof EmbeddingCacheId other)) return false;
+        return Objects.equals(model, other.model) && Objects.equals(contentHash, other.contentHash);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(model, contentHash);
+    }
+}
@@ -0,0 +1,50 @@
+package com.hostel.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * What is currently in the vector index for a complaint: a hash of the indexed document and
+ * metadata plus the embedding model that produced the vector. Sync paths compare against it
+ * and only re-embed complaints whose content or model changed.
+ */
+@Entity
+@Table(name = "embedding_state")
+public class EmbeddingState {
+
+    @Id
+    @Column(name = "complaint_id")
+    private Long complaintId;
+
+    @Column(name = "content_hash", nullable = false, length = 64)
+    private String contentHash;
+
+    @Column(nullable = false, length = 100)
+    private String model;
+
+    @Column(name = "indexed_at", nullable = false)
+    private LocalDateTime indexedAt;
+
+    public EmbeddingState() {}
+
+    public Long getComplaintId() {
+        return complaintId;
+    }
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public String getModel() {
+        return model;
+    }
+
+    public LocalDateTime getIndexedAt() {
+        return indexedAt;
+    }
+
+    public boolean matches(String contentHash, String model) {
+        return this.contentHash.equals(contentHash) && this.model.equals(model);
+    }
+}
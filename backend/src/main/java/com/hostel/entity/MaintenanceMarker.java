@@ -0,0 +1,36 @@
+package com.hostel.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Records that a one-shot data migration has finished, so startup runners can skip it on
+ * every later boot instead of re-scanning the tables it touched.
+ */
+@Entity
+@Table(name = "maintenance_markers")
+public class MaintenanceMarker {
+
+    @Id
+    @Column(length = 100)
+    private String name;
+
+    @Column(name = "completed_at", nullable = false)
+    private LocalDateTime completedAt;
+
+    public MaintenanceMarker() {}
+
+    public MaintenanceMarker(String name, LocalDateTime completedAt) {
+        this.name = name;
+        this.completedAt = completedAt;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+}
@@ -0,0 +1,42 @@
+package com.hostel.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * Per-day, per-user assistant usage, maintained alongside {@link QaHistory} so that
+ * usage charts read a few hundred rollup rows instead of the raw history.
+ */
+@Entity
+@Table(name = "qa_daily_rollup")
+public class QaDailyRollup {
+
+    @EmbeddedId
+    private QaDailyRollupId id;
+
+    @Column(name = "total_count", nullable = false)
+    private long totalCount;
+
+    @Column(name = "error_count", nullable = false)
+    private long errorCount;
+
+    @Column(name = "latency_ms_sum", nullable = false)
+    private long latencyMsSum;
+
+    public QaDailyRollup() {}
+
+    public QaDailyRollupId getId() {
+        return id;
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    public long getErrorCount() {
+        return errorCount;
+    }
+
+    public long getLatencyMsSum() {
+        return latencyMsSum;
+    }
+}
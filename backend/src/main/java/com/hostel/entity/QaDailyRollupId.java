@@ -0,0 +1,53 @@
+package com.hostel.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+@Embeddable
+public class QaDailyRollupId implements Serializable {
+
+    @Column(name = "day", nullable = false)
+    private LocalDate day;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "is_admin", nullable = false)
+    private boolean admin;
+
+    public QaDailyRollupId() {}
+
+    public QaDailyRollupId(LocalDate day, Long userId, boolean admin) {
+        this.day = day;
+        this.userId = userId;
+        this.admin = admin;
+    }
+
+    public LocalDate getDay() {
+        return day;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public boolean isAdmin() {
+        return admin;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof QaDailyRollupId other)) return false;
+        return admin == other.admin && Objects.equals(day, other.day) && Objects.equals(userId, other.userId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(day, userId, admin);
+    }
+}
@@ -5,7 +5,10 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "qa_history")
+@Table(name = "qa_history", indexes = {
+        @Index(name = "idx_qa_history_asked_at", columnList = "asked_at"),
+        @Index(name = "idx_qa_history_user_asked_at", columnList = "user_id, asked_at DESC")
+})
 public class QaHistory {
 
     @Id
@@ -27,6 +30,14 @@ public class QaHistory {
     @Column(name = "asked_at", nullable = false)
     private LocalDateTime askedAt;
 
+    // Set at write time so analytics can count failures without reading the answer text
+    @Column(name = "is_error", nullable = false, columnDefinition = "boolean not null default false")
+    private boolean error;
+
+    // Time spent waiting for the LLM; null for rows written before it was tracked
+    @Column(name = "latency_ms")
+    private Long latencyMs;
+
     public QaHistory() {}
 
     public QaHistory(Long userId, boolean admin, String question, String answer, LocalDateTime askedAt) {
@@ -80,4 +91,20 @@ public class QaHistory {
     public void setAskedAt(LocalDateTime askedAt) {
         this.askedAt = askedAt;
     }
+
+    public boolean isError() {
+        return error;
+    }
+
+    public void setError(boolean error) {
+        this.error = error;
+    }
+
+    public Long getLatencyMs() {
+        return latencyMs;
+    }
+
+    public void setLatencyMs(Long latencyMs) {
+        this.latencyMs = latencyMs;
+    }
 }
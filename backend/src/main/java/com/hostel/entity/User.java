@@ -1,7 +1,10 @@
 package com.hostel.entity;
 
+import com.hostel.config.UserChangeListener;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -9,6 +12,7 @@ import jakarta.persistence.Table;
 import jakarta.persistence.UniqueConstraint;
 
 @Entity
+@EntityListeners(UserChangeListener.class)
 @Table(name = "users",
        uniqueConstraints = @UniqueConstraint(columnNames = "username"))
 public class User {
@@ -0,0 +1,121 @@
+package com.hostel.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of a vector index re-sync. Complaints are indexed in id order, and
+ * {@code lastIndexedId} only advances past chunks that were fully upserted, so an interrupted
+ * or failed run resumes right after it.
+ */
+@Entity
+@Table(name = "vector_sync_checkpoint")
+public class VectorSyncCheckpoint {
+
+    public enum State { RUNNING, COMPLETED, FAILED }
+
+    @Id
+    @Column(name = "job_name", length = 50)
+    private String jobName;
+
+    @Column(name = "last_indexed_id", nullable = false)
+    private long lastIndexedId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private State state;
+
+    @Column(name = "indexed_count", nullable = false)
+    private long indexedCount;
+
+    @Column(name = "total_count", nullable = false)
+    private long totalCount;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    public VectorSyncCheckpoint() {}
+
+    public VectorSyncCheckpoint(String jobName) {
+        this.jobName = jobName;
+        this.state = State.COMPLETED;
+    }
+
+    public String getJobName() {
+        return jobName;
+    }
+
+    public long getLastIndexedId() {
+        return lastIndexedId;
+    }
+
+    public void setLastIndexedId(long lastIndexedId) {
+        this.lastIndexedId = lastIndexedId;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public void setState(State state) {
+        this.state = state;
+    }
+
+    public long getIndexedCount() {
+        return indexedCount;
+    }
+
+    public void setIndexedCount(long indexedCount) {
+        this.indexedCount = indexedCount;
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    public void setTotalCount(long totalCount) {
+        this.totalCount = totalCount;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+}
@@ -0,0 +1,19 @@
+package com.hostel.exception;
+
+/**
+ * Thrown when an LLM call is shed (too many in flight) or refused by the open circuit
+ * breaker. Mapped to HTTP 503 with a Retry-After header.
+ */
+public class LlmUnavailableException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public LlmUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,9 @@
+package com.hostel.repository;
+
+import com.hostel.entity.ComplaintEndorsement;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ComplaintEndorsementRepository extends JpaRepository<ComplaintEndorsement, Long> {
+
+    boolean existsByComplaintIdAndUserId(Long complaintId, Long userId);
+}
@@ -0,0 +1,23 @@
+package com.hostel.repository;
+
+/**
+ * One row of {@link ComplaintRepository#countGrouped()}. {@code groupingId} is the
+ * SQL GROUPING(status, category, priority_level) bitmask and tells which grouping
+ * set the row belongs to (a set bit means that column was rolled up).
+ */
+public interface ComplaintGroupCount {
+
+    int STATUS_CATEGORY = 0b001;
+    int PRIORITY = 0b110;
+    int GRAND_TOTAL = 0b111;
+
+    String getStatus();
+
+    String getCategory();
+
+    String getPriorityLevel();
+
+    Integer getGroupingId();
+
+    Long getCount();
+}
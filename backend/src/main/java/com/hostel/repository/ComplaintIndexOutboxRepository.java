@@ -0,0 +1,26 @@
+package com.hostel.repository;
+
+import com.hostel.entity.ComplaintIndexOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface ComplaintIndexOutboxRepository extends JpaRepository<ComplaintIndexOutbox, Long> {
+
+    // Rows locked by another worker are skipped rather than waited on
+    @Query(value = "SELECT id FROM complaint_index_outbox WHERE next_attempt_at <= :now " +
+            "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockDueIds(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE ComplaintIndexOutbox o SET o.nextAttemptAt = :until, o.attempts = o.attempts + 1 WHERE o.id IN :ids")
+    int lease(@Param("ids") Collection<Long> ids, @Param("until") LocalDateTime until);
+
+    @Query("SELECT MIN(o.createdAt) FROM ComplaintIndexOutbox o")
+    LocalDateTime findOldestCreatedAt();
+}
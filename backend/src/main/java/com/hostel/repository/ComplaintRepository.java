@@ -1,21 +1,70 @@
 package com.hostel.repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.hostel.entity.Category;
 import com.hostel.entity.Complaint;
 import com.hostel.entity.Status;
 import com.hostel.entity.User;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
-public interface ComplaintRepository extends JpaRepository<Complaint, Long> {
+public interface ComplaintRepository extends JpaRepository<Complaint, Long>, JpaSpecificationExecutor<Complaint>,
+        ComplaintSearchRepository {
     List<Complaint> findByRaisedBy(User user);
     
     Long countByStatus(Status status);
     
     @Query("SELECT c.category, COUNT(c) FROM Complaint c GROUP BY c.category")
     List<Object[]> countByCategory();
+
+    // Every dashboard number in one round trip: the status x category matrix, per-priority counts and the total
+    @Query(value = "SELECT status AS \"status\", category AS \"category\", priority_level AS \"priorityLevel\", " +
+            "GROUPING(status, category, priority_level) AS \"groupingId\", COUNT(*) AS \"count\" " +
+            "FROM complaints " +
+            "GROUP BY GROUPING SETS ((status, category), (priority_level), ())",
+            nativeQuery = true)
+    List<ComplaintGroupCount> countGrouped();
+
+    // Id-ordered chunks for resumable bulk jobs (vector re-sync)
+    @Query("SELECT c FROM Complaint c WHERE c.id > :afterId ORDER BY c.id")
+    List<Complaint> findChunkAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    long countByIdGreaterThan(Long id);
+
+    // Duplicate-detection candidates: newest complaints still being worked on in one block
+    @Query("SELECT c FROM Complaint c WHERE c.category = :category AND LOWER(TRIM(c.block)) = :block " +
+            "AND c.status IN :statuses ORDER BY c.id DESC")
+    List<Complaint> findActiveInBlock(@Param("category") Category category,
+                                      @Param("block") String block,
+                                      @Param("statuses") Collection<Status> statuses,
+                                      Pageable pageable);
+
+    // Bulk update on purpose: a "me too" is not a content change, so entity listeners stay quiet
+    @Modifying
+    @Query("UPDATE Complaint c SET c.meTooCount = COALESCE(c.meTooCount, 0) + 1 WHERE c.id = :id")
+    int incrementMeTooCount(@Param("id") Long id);
+
+    // Streams must be consumed inside a transaction; the fetch size lets the driver use a server-side cursor
+    @Query("SELECT c FROM Complaint c JOIN FETCH c.raisedBy ORDER BY c.createdAt DESC, c.id DESC")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<Complaint> streamAll();
+
+    @Query("SELECT c FROM Complaint c JOIN FETCH c.raisedBy WHERE c.raisedBy = :user ORDER BY c.createdAt DESC, c.id DESC")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<Complaint> streamByRaisedBy(@Param("user") User user);
 }
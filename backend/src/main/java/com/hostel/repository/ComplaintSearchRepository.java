@@ -0,0 +1,14 @@
+package com.hostel.repository;
+
+import java.util.List;
+
+public interface ComplaintSearchRepository {
+
+    /**
+     * Ranked description search backed by the {@code search_vector} GIN index (or the
+     * trigram index when {@link ComplaintTextQuery#fuzzy()} is set).
+     *
+     * @return up to {@code limit} rows of {@code [Long id, Float rank]} ordered by rank, then id, descending
+     */
+    List<Object[]> searchRanked(ComplaintTextQuery query, int limit);
+}
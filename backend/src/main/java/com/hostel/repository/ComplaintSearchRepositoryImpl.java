@@ -0,0 +1,74 @@
+package com.hostel.repository;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+public class ComplaintSearchRepositoryImpl implements ComplaintSearchRepository {
+
+    private static final String FTS_RANK = "ts_rank(c.search_vector, websearch_to_tsquery('english', :text))";
+    private static final String FTS_MATCH = "c.search_vector @@ websearch_to_tsquery('english', :text)";
+    private static final String TRGM_RANK = "word_similarity(:text, c.description)";
+    private static final String TRGM_MATCH = ":text <% c.description";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Object[]> searchRanked(ComplaintTextQuery query, int limit) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("text", query.text().trim());
+
+        StringBuilder inner = new StringBuilder("SELECT c.id AS id, ")
+                .append(query.fuzzy() ? TRGM_RANK : FTS_RANK).append(" AS rank FROM complaints c WHERE ")
+                .append(query.fuzzy() ? TRGM_MATCH : FTS_MATCH);
+        if (query.raisedById() != null) {
+            inner.append(" AND c.raised_by = :raisedBy");
+            params.put("raisedBy", query.raisedById());
+        }
+        if (query.agent() != null && !query.agent().isBlank()) {
+            inner.append(" AND lower(c.assigned_to) LIKE :agent ESCAPE '\\'");
+            params.put("agent", likePattern(query.agent()));
+        }
+        if (query.category() != null) {
+            inner.append(" AND c.category = :category");
+            params.put("category", query.category().name());
+        }
+        if (query.from() != null) {
+            inner.append(" AND c.created_at >= :fromTs");
+            params.put("fromTs", query.from());
+        }
+        if (query.to() != null) {
+            inner.append(" AND c.created_at < :toTs");
+            params.put("toTs", query.to());
+        }
+
+        StringBuilder sql = new StringBuilder("SELECT ranked.id, ranked.rank FROM (").append(inner).append(") ranked");
+        if (query.afterRank() != null && query.afterId() != null) {
+            sql.append(" WHERE ranked.rank < CAST(:afterRank AS real)")
+               .append(" OR (ranked.rank = CAST(:afterRank AS real) AND ranked.id < :afterId)");
+            params.put("afterRank", query.afterRank());
+            params.put("afterId", query.afterId());
+        }
+        sql.append(" ORDER BY ranked.rank DESC, ranked.id DESC LIMIT :limit");
+        params.put("limit", limit);
+
+        Query nativeQuery = entityManager.createNativeQuery(sql.toString());
+        params.forEach(nativeQuery::setParameter);
+        return nativeQuery.getResultList();
+    }
+
+    private static String likePattern(String text) {
+        String escaped = text.toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+}
@@ -0,0 +1,107 @@
+package com.hostel.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Locale;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.hostel.dto.ComplaintCursor;
+import com.hostel.entity.Category;
+import com.hostel.entity.Complaint;
+import com.hostel.entity.Status;
+
+import jakarta.persistence.criteria.JoinType;
+
+/**
+ * Reusable JPA predicates for complaint search. Every filter returns {@code null}
+ * when its argument is absent so callers can compose them freely.
+ */
+public final class ComplaintSpecifications {
+
+    private ComplaintSpecifications() {}
+
+    public static Specification<Complaint> raisedBy(Long userId) {
+        if (userId == null) return null;
+        return (root, query, cb) -> cb.equal(root.get("raisedBy").get("id"), userId);
+    }
+
+    public static Specification<Complaint> idIn(Collection<Long> ids) {
+        return (root, query, cb) -> root.get("id").in(ids);
+    }
+
+    public static Specification<Complaint> descriptionContains(String text) {
+        if (text == null || text.isBlank()) return null;
+        String pattern = likePattern(text);
+        return (root, query, cb) -> cb.like(cb.lower(root.get("description")), pattern, '\\');
+    }
+
+    public static Specification<Complaint> assignedToContains(String agent) {
+        if (agent == null || agent.isBlank()) return null;
+        String pattern = likePattern(agent);
+        return (root, query, cb) -> cb.like(cb.lower(root.get("assignedTo")), pattern, '\\');
+    }
+
+    public static Specification<Complaint> hasCategory(Category category) {
+        if (category == null) return null;
+        return (root, query, cb) -> cb.equal(root.get("category"), category);
+    }
+
+    public static Specification<Complaint> categoryIn(Collection<Category> categories) {
+        if (categories == null || categories.isEmpty()) return null;
+        return (root, query, cb) -> root.get("category").in(categories);
+    }
+
+    public static Specification<Complaint> statusIn(Collection<Status> statuses) {
+        if (statuses == null || statuses.isEmpty()) return null;
+        return (root, query, cb) -> root.get("status").in(statuses);
+    }
+
+    public static Specification<Complaint> createdFrom(LocalDateTime from) {
+        if (from == null) return null;
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("createdAt"), from);
+    }
+
+    public static Specification<Complaint> createdBefore(LocalDateTime to) {
+        if (to == null) return null;
+        return (root, query, cb) -> cb.lessThan(root.get("createdAt"), to);
+    }
+
+    /**
+     * Keyset predicate for the (created_at DESC, id DESC) ordering: only rows that
+     * sort strictly after the cursor are returned.
+     */
+    public static Specification<Complaint> after(ComplaintCursor cursor) {
+        if (cursor == null) return null;
+        if (cursor.ranked()) {
+            throw new IllegalArgumentException("Cursor belongs to a text search and cannot be used here");
+        }
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("createdAt"), cursor.createdAt()),
+                cb.and(
+                        cb.equal(root.get("createdAt"), cursor.createdAt()),
+                        cb.lessThan(root.get("id"), cursor.id())));
+    }
+
+    /**
+     * Fetch-joins the reporter so a page of results is loaded in one statement
+     * instead of one extra select per complaint.
+     */
+    public static Specification<Complaint> fetchRaisedBy() {
+        return (root, query, cb) -> {
+            Class<?> resultType = query.getResultType();
+            if (resultType != Long.class && resultType != long.class) {
+                root.fetch("raisedBy", JoinType.INNER);
+            }
+            return null;
+        };
+    }
+
+    private static String likePattern(String text) {
+        String escaped = text.toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+}
@@ -0,0 +1,21 @@
+package com.hostel.repository;
+
+import java.time.LocalDateTime;
+
+import com.hostel.entity.Category;
+
+/**
+ * Filters for a ranked text search. {@code fuzzy} switches from the tsvector
+ * match to trigram word similarity; {@code afterRank}/{@code afterId} form the
+ * keyset position of the previous page (both null for the first page).
+ */
+public record ComplaintTextQuery(String text,
+                                 boolean fuzzy,
+                                 Long raisedById,
+                                 String agent,
+                                 Category category,
+                                 LocalDateTime from,
+                                 LocalDateTime to,
+                                 Float afterRank,
+                                 Long afterId) {
+}
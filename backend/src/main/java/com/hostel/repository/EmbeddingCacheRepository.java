@@ -0,0 +1,31 @@
+package com.hostel.repository;
+
+import com.hostel.entity.EmbeddingCacheEntry;
+import com.hostel.entity.EmbeddingCacheId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface EmbeddingCacheRepository extends JpaRepository<EmbeddingCacheEntry, EmbeddingCacheId> {
+
+    @Query("SELECT e FROM EmbeddingCacheEntry e WHERE e.id.model = :model AND e.id.contentHash IN :hashes")
+    List<EmbeddingCacheEntry> findByModelAndHashes(@Param("model") String model, @Param("hashes") Collection<String> hashes);
+
+    // Content-addressed, so a concurrent insert of the same key carries the same vector
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO embedding_cache (model, content_hash, vector, dimensions, created_at) " +
+            "VALUES (:model, :hash, :vector, :dimensions, :createdAt) " +
+            "ON CONFLICT (model, content_hash) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("model") String model,
+                       @Param("hash") String hash,
+                       @Param("vector") byte[] vector,
+                       @Param("dimensions") int dimensions,
+                       @Param("createdAt") LocalDateTime createdAt);
+}
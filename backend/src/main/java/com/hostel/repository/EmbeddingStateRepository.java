@@ -0,0 +1,25 @@
+package com.hostel.repository;
+
+import com.hostel.entity.EmbeddingState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+public interface EmbeddingStateRepository extends JpaRepository<EmbeddingState, Long> {
+
+    // The outbox worker and a re-sync may index the same complaint concurrently
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO embedding_state (complaint_id, content_hash, model, indexed_at) " +
+            "VALUES (:complaintId, :hash, :model, :indexedAt) " +
+            "ON CONFLICT (complaint_id) DO UPDATE SET content_hash = EXCLUDED.content_hash, " +
+            "model = EXCLUDED.model, indexed_at = EXCLUDED.indexed_at", nativeQuery = true)
+    int upsert(@Param("complaintId") Long complaintId,
+               @Param("hash") String hash,
+               @Param("model") String model,
+               @Param("indexedAt") LocalDateTime indexedAt);
+}
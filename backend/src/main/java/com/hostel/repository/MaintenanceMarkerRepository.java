@@ -0,0 +1,7 @@
+package com.hostel.repository;
+
+import com.hostel.entity.MaintenanceMarker;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface MaintenanceMarkerRepository extends JpaRepository<MaintenanceMarker, String> {
+}
@@ -0,0 +1,57 @@
+package com.hostel.repository;
+
+import com.hostel.entity.QaDailyRollup;
+import com.hostel.entity.QaDailyRollupId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface QaDailyRollupRepository extends JpaRepository<QaDailyRollup, QaDailyRollupId> {
+
+    @Modifying
+    @Query(value = "INSERT INTO qa_daily_rollup (day, user_id, is_admin, total_count, error_count, latency_ms_sum) " +
+            "VALUES (:day, :userId, :admin, 1, :errors, :latencyMs) " +
+            "ON CONFLICT (day, user_id, is_admin) DO UPDATE SET " +
+            "total_count = qa_daily_rollup.total_count + 1, " +
+            "error_count = qa_daily_rollup.error_count + EXCLUDED.error_count, " +
+            "latency_ms_sum = qa_daily_rollup.latency_ms_sum + EXCLUDED.latency_ms_sum", nativeQuery = true)
+    void increment(@Param("day") LocalDate day,
+                   @Param("userId") Long userId,
+                   @Param("admin") boolean admin,
+                   @Param("errors") int errors,
+                   @Param("latencyMs") long latencyMs);
+
+    // Blocks record() increments until the surrounding transaction ends
+    @Modifying
+    @Query(value = "LOCK TABLE qa_daily_rollup IN EXCLUSIVE MODE", nativeQuery = true)
+    void lockForRebuild();
+
+    // Recomputes every rollup row from qa_history; call with lockForRebuild held
+    @Modifying
+    @Query(value = "INSERT INTO qa_daily_rollup (day, user_id, is_admin, total_count, error_count, latency_ms_sum) " +
+            "SELECT CAST(asked_at AS date), user_id, is_admin, COUNT(*), COUNT(*) FILTER (WHERE is_error), " +
+            "COALESCE(SUM(latency_ms), 0) FROM qa_history GROUP BY 1, 2, 3 " +
+            "ON CONFLICT (day, user_id, is_admin) DO UPDATE SET " +
+            "total_count = EXCLUDED.total_count, " +
+            "error_count = EXCLUDED.error_count, " +
+            "latency_ms_sum = EXCLUDED.latency_ms_sum", nativeQuery = true)
+    int rebuildFromHistory();
+
+    // Rows of [day, total, admin]
+    @Query("SELECT r.id.day, SUM(r.totalCount), SUM(CASE WHEN r.id.admin = true THEN r.totalCount ELSE 0 END) " +
+            "FROM QaDailyRollup r WHERE r.id.day BETWEEN :start AND :end GROUP BY r.id.day")
+    List<Object[]> countDaily(@Param("start") LocalDate start, @Param("end") LocalDate end);
+
+    @Query("SELECT r.id.day, SUM(r.totalCount), SUM(CASE WHEN r.id.admin = true THEN r.totalCount ELSE 0 END) " +
+            "FROM QaDailyRollup r WHERE r.id.userId = :userId AND r.id.day BETWEEN :start AND :end GROUP BY r.id.day")
+    List<Object[]> countDailyForUser(@Param("userId") Long userId, @Param("start") LocalDate start, @Param("end") LocalDate end);
+
+    // Single row: [total, admin, error, first day, last day]
+    @Query("SELECT SUM(r.totalCount), SUM(CASE WHEN r.id.admin = true THEN r.totalCount ELSE 0 END), " +
+            "SUM(r.errorCount), MIN(r.id.day), MAX(r.id.day) FROM QaDailyRollup r WHERE r.id.userId = :userId")
+    List<Object[]> totalsForUser(@Param("userId") Long userId);
+}
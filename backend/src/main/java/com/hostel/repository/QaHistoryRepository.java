@@ -2,6 +2,10 @@ package com.hostel.repository;
 
 import com.hostel.entity.QaHistory;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -15,4 +19,20 @@ public interface QaHistoryRepository extends JpaRepository<QaHistory, Long> {
     long countByAdminTrue();
 
     long countByAskedAtBetween(LocalDateTime start, LocalDateTime end);
+
+    // Single row: [total, admin, error, first asked_at, last asked_at]
+    @Query(value = "SELECT COUNT(*), COUNT(*) FILTER (WHERE is_admin), COUNT(*) FILTER (WHERE is_error), " +
+            "MIN(asked_at), MAX(asked_at) FROM qa_history", nativeQuery = true)
+    List<Object[]> aggregateTotals();
+
+    // Flags answers written before is_error existed, when failures were stored as answer text.
+    // New rows get is_error from QaHistoryService.recordFailure.
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE qa_history SET is_error = true WHERE is_error = false AND (" +
+            "lower(answer) LIKE 'error calling llm api%' " +
+            "OR lower(answer) LIKE '%no response from llm api%' " +
+            "OR lower(answer) LIKE '%unexpected response format from llm api%' " +
+            "OR lower(answer) LIKE '%llm configuration is missing%')", nativeQuery = true)
+    int backfillErrorFlags();
 }
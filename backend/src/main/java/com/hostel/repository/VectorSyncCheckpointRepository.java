@@ -0,0 +1,7 @@
+package com.hostel.repository;
+
+import com.hostel.entity.VectorSyncCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface VectorSyncCheckpointRepository extends JpaRepository<VectorSyncCheckpoint, String> {
+}
@@ -2,16 +2,16 @@ package com.hostel.service;
 
 import com.hostel.entity.Complaint;
 import com.hostel.entity.User;
-import com.hostel.entity.QaHistory;
 import com.hostel.repository.ComplaintRepository;
-import com.hostel.repository.QaHistoryRepository;
+import com.hostel.repository.ComplaintSpecifications;
 import com.hostel.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Locale;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.regex.Pattern;
 
@@ -29,42 +29,57 @@ public class AgentQaService {
     private RagLlmClient ragLlmClient;
 
     @Autowired
-    private QaHistoryRepository qaHistoryRepository;
+    private QaHistoryService qaHistoryService;
+
+    @Autowired
+    private ComplaintRetriever retriever;
+
+    @Value("${qa.retrieval.tokenBudget:3000}")
+    private int tokenBudget;
+
+    @Value("${qa.retrieval.clientMaxComplaints:20}")
+    private int clientMaxComplaints;
+
+    @Value("${qa.retrieval.adminMaxComplaints:50}")
+    private int adminMaxComplaints;
+
+    private static final int MAX_DESCRIPTION_CHARS = 600;
 
     /**
-     * Simple retrieval-style answer generator over complaints assigned to the agent.
-     * This is the "R" in RAG; you can plug an external LLM on top of the retrieved
-     * snippets to generate richer natural language answers.
+     * Answers a client's question from their own complaints. Context is chosen by
+     * {@link ComplaintRetriever} (SQL filters, full-text and vector similarity) and
+     * the LLM writes the answer from it.
      */
     public String answerQuestion(String question, Long userId) {
+        QaPrompt prompt = clientPrompt(question, userId);
+        if (prompt.directAnswer() != null) {
+            return prompt.directAnswer();
+        }
+
+        return recorded(question, userId, false, () ->
+                ragLlmClient.generateAnswer(prompt.systemPrompt(), question, prompt.context(), prompt.sourceIds()));
+    }
+
+    /**
+     * Streaming form of {@link #answerQuestion}: chunks go to {@code onChunk} as the LLM
+     * produces them and the complete answer is saved to history once generation finishes.
+     */
+    public String streamQuestion(String question, Long userId, Consumer<String> onChunk) {
+        return stream(clientPrompt(question, userId), question, userId, false, onChunk);
+    }
+
+    private QaPrompt clientPrompt(String question, Long userId) {
         User client = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("Client not found with id: " + userId));
 
-        // Retrieve complaints raised by this client
-        List<Complaint> allComplaints = complaintRepository.findByRaisedBy(client);
-
-        if (allComplaints.isEmpty()) {
-            return "No complaints found for client " + client.getFullName() + ".";
+        ComplaintRetriever.Retrieval retrieval = retriever.retrieve(question, client.getId(),
+                clientMaxComplaints, tokenBudget, this::renderForClient);
+        if (retrieval.complaints().isEmpty()) {
+            return QaPrompt.direct(complaintRepository.count(ComplaintSpecifications.raisedBy(client.getId())) == 0
+                    ? "No complaints found for client " + client.getFullName() + "."
+                    : "None of your complaints match this question.");
         }
-
-        // Filter complaints by keywords in the question
-        List<Complaint> filteredComplaints = filterComplaintsByQuestion(allComplaints, question);
-
-        // Build retrieval context from the filtered complaints (limit to 20)
-        String context = filteredComplaints.stream().limit(20).map(c -> {
-            StringBuilder sb = new StringBuilder();
-            sb.append("Complaint #").append(c.getId()).append("\n");
-            sb.append("Category: ").append(c.getCategory()).append("\n");
-            sb.append("Status: ").append(c.getStatus()).append("\n");
-            if (c.getAvailabilityDate() != null) {
-                sb.append("Date: ").append(c.getAvailabilityDate()).append("\n");
-            }
-            if (c.getDescription() != null) {
-                sb.append("Description: ").append(maskPii(c.getDescription())).append("\n");
-            }
-            sb.append("---\n");
-            return sb.toString();
-        }).collect(Collectors.joining("\n"));
+        String context = withCount(retrieval);
 
         String systemPrompt = "You are a helpful hostel complaint management assistant. " +
             "Answer questions about the client's complaints using ONLY the provided context. " +
@@ -72,56 +87,46 @@ public class AgentQaService {
             "Always format your answer EXACTLY in three sections with these headings: " +
             "'Summary', 'Details', and 'Suggestions'. " +
             "When the user asks 'how many', 'count', 'number of' or to 'show/list all' complaints " +
-            "for a category (for example plumbing / plumbering), in the Summary give the exact count, and in Details: " +
+            "for a category (for example plumbing / plumbering), in the Summary give the exact count " +
+            "(taken from the 'Total matching complaints' line when the context has one), and in Details: " +
             "list EACH matching complaint on its own line in this format: " +
             "'- Complaint #<id> | Category: <category> | Status: <status> | Date: <date or N/A> | <short description>'. " +
             "For other questions, still use the same three sections: " +
             "Summary: 1-2 sentence overview; Details: bullet points with ids, categories, statuses, dates; " +
             "Suggestions: bullet points with practical advice for the client (or 'None' if not applicable).";
 
-        String answer = ragLlmClient.generateAnswer(systemPrompt, question, context);
-
-        // persist history for this client question
-        saveHistory(userId, false, question, answer);
-
-        return answer;
+        return new QaPrompt(systemPrompt, context, complaintIds(retrieval.complaints()), null);
     }
 
     /**
      * Admin-level Q&A over all complaints in the system.
      */
     public String answerAdminQuestion(String question, Long adminUserId) {
-        List<Complaint> allComplaints = complaintRepository.findAll();
-
-        if (allComplaints.isEmpty()) {
-            return "No complaints found in the system.";
+        QaPrompt prompt = adminPrompt(question);
+        if (prompt.directAnswer() != null) {
+            return prompt.directAnswer();
         }
 
-        // Filter complaints by keywords in the question
-        List<Complaint> filteredComplaints = filterComplaintsByQuestion(allComplaints, question);
-
-        String context = filteredComplaints.stream().limit(50).map(c -> {
-            StringBuilder sb = new StringBuilder();
-            sb.append("Complaint #").append(c.getId()).append("\n");
-            // Do not include any PII such as full names or emails in the AI context
-            sb.append("Raised By: ");
-            if (c.getRaisedBy() != null && c.getRaisedBy().getId() != null) {
-                sb.append("USER-").append(c.getRaisedBy().getId());
-            } else {
-                sb.append("Unknown");
-            }
-            sb.append("\n");
-            sb.append("Category: ").append(c.getCategory()).append("\n");
-            sb.append("Status: ").append(c.getStatus()).append("\n");
-            if (c.getAvailabilityDate() != null) {
-                sb.append("Date: ").append(c.getAvailabilityDate()).append("\n");
-            }
-            if (c.getDescription() != null) {
-                sb.append("Description: ").append(maskPii(c.getDescription())).append("\n");
-            }
-            sb.append("---\n");
-            return sb.toString();
-        }).collect(Collectors.joining("\n"));
+        return recorded(question, adminUserId, true, () ->
+                ragLlmClient.generateAnswer(prompt.systemPrompt(), question, prompt.context(), prompt.sourceIds()));
+    }
+
+    /**
+     * Streaming form of {@link #answerAdminQuestion}.
+     */
+    public String streamAdminQuestion(String question, Long adminUserId, Consumer<String> onChunk) {
+        return stream(adminPrompt(question), question, adminUserId, true, onChunk);
+    }
+
+    private QaPrompt adminPrompt(String question) {
+        ComplaintRetriever.Retrieval retrieval = retriever.retrieve(question, null,
+                adminMaxComplaints, tokenBudget, this::renderForAdmin);
+        if (retrieval.complaints().isEmpty()) {
+            return QaPrompt.direct(complaintRepository.count() == 0
+                    ? "No complaints found in the system."
+                    : "No complaints match this question.");
+        }
+        String context = withCount(retrieval);
 
         String systemPrompt = "You are a helpful hostel complaint management assistant for admins. " +
             "Answer questions about all complaints in the system using ONLY the provided context. " +
@@ -129,56 +134,106 @@ public class AgentQaService {
             "Always format your answer EXACTLY in three sections with these headings: " +
             "'Summary', 'Details', and 'Recommendations'. " +
             "When the admin asks 'how many', 'count', 'number of' or to 'show/list all' complaints " +
-            "for a category (for example plumbing / plumbering), in the Summary give the exact count, and in Details: " +
+            "for a category (for example plumbing / plumbering), in the Summary give the exact count " +
+            "(taken from the 'Total matching complaints' line when the context has one), and in Details: " +
             "list EACH matching complaint on its own line in this format: " +
             "'- Complaint #<id> | Raised By: <non-PII user id like USER-123 or Unknown> | Category: <category> | Status: <status> | Date: <date or N/A> | <short description>'. " +
             "For other questions, still use the same three sections: " +
             "Summary: brief overview; Details: bullet points with important numbers, categories, trends, and risks; " +
             "Recommendations: 1-3 concrete next actions for the admin.";
 
-        String answer = ragLlmClient.generateAnswer(systemPrompt, question, context);
+        return new QaPrompt(systemPrompt, context, complaintIds(retrieval.complaints()), null);
+    }
+
+    private String renderForClient(Complaint c) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Complaint #").append(c.getId()).append("\n");
+        sb.append("Category: ").append(c.getCategory()).append("\n");
+        sb.append("Status: ").append(c.getStatus()).append("\n");
+        if (c.getAvailabilityDate() != null) {
+            sb.append("Date: ").append(c.getAvailabilityDate()).append("\n");
+        }
+        if (c.getDescription() != null) {
+            sb.append("Description: ").append(snippet(maskPii(c.getDescription()))).append("\n");
+        }
+        sb.append("---\n");
+        return sb.toString();
+    }
+
+    private String renderForAdmin(Complaint c) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Complaint #").append(c.getId()).append("\n");
+        // Do not include any PII such as full names or emails in the AI context
+        sb.append("Raised By: ");
+        if (c.getRaisedBy() != null && c.getRaisedBy().getId() != null) {
+            sb.append("USER-").append(c.getRaisedBy().getId());
+        } else {
+            sb.append("Unknown");
+        }
+        sb.append("\n");
+        sb.append("Category: ").append(c.getCategory()).append("\n");
+        sb.append("Status: ").append(c.getStatus()).append("\n");
+        if (c.getAvailabilityDate() != null) {
+            sb.append("Date: ").append(c.getAvailabilityDate()).append("\n");
+        }
+        if (c.getDescription() != null) {
+            sb.append("Description: ").append(snippet(maskPii(c.getDescription()))).append("\n");
+        }
+        sb.append("---\n");
+        return sb.toString();
+    }
+
+    // The context holds only the most relevant complaints, so counting questions need the real total
+    private String withCount(ComplaintRetriever.Retrieval retrieval) {
+        if (retrieval.matchingCount() == null) {
+            return retrieval.context();
+        }
+        return "Total matching complaints: " + retrieval.matchingCount() + " (" + retrieval.complaints().size()
+                + " most relevant listed below)\n\n" + retrieval.context();
+    }
+
+    // One long description should not take the whole token budget
+    private static String snippet(String text) {
+        return text.length() <= MAX_DESCRIPTION_CHARS ? text : text.substring(0, MAX_DESCRIPTION_CHARS) + "...";
+    }
 
-        // persist history for this admin question
-        if (adminUserId != null) {
-            saveHistory(adminUserId, true, question, answer);
+    private String stream(QaPrompt prompt, String question, Long userId, boolean admin, Consumer<String> onChunk) {
+        if (prompt.directAnswer() != null) {
+            onChunk.accept(prompt.directAnswer());
+            return prompt.directAnswer();
         }
 
+        return recorded(question, userId, admin, () ->
+                ragLlmClient.streamAnswer(prompt.systemPrompt(), question, prompt.context(), prompt.sourceIds(), onChunk));
+    }
+
+    // Times the LLM call and saves the question to history; a failed call is saved as an error and rethrown
+    private String recorded(String question, Long userId, boolean admin, Supplier<String> call) {
+        long started = System.nanoTime();
+        String answer;
+        try {
+            answer = call.get();
+        } catch (RuntimeException ex) {
+            try {
+                qaHistoryService.recordFailure(userId, admin, question, ex, (System.nanoTime() - started) / 1_000_000);
+            } catch (RuntimeException historyFailure) {
+                ex.addSuppressed(historyFailure);
+            }
+            throw ex;
+        }
+        qaHistoryService.record(userId, admin, question, answer, (System.nanoTime() - started) / 1_000_000);
         return answer;
     }
 
-    // Simple keyword-based filtering for complaints based on the question
-    private List<Complaint> filterComplaintsByQuestion(List<Complaint> complaints, String question) {
-        if (question == null || question.isEmpty()) return complaints;
-        String q = question.toLowerCase(Locale.ROOT);
-
-        // Category keywords
-        boolean wantPlumbing = q.contains("plumbing") || q.contains("plumber");
-        boolean wantElectrical = q.contains("electrical") || q.contains("electrician");
-        boolean wantCarpentry = q.contains("carpentry") || q.contains("carpenter");
-        boolean wantRagging = q.contains("ragging");
-
-        // Status keywords
-        boolean wantOpen = q.contains("open");
-        boolean wantResolved = q.contains("resolved") || q.contains("closed") || q.contains("solved");
-        boolean wantInProgress = q.contains("in progress") || q.contains("progress");
-
-        // Filter by category and status if mentioned
-        return complaints.stream().filter(c -> {
-            boolean catMatch =
-                (!wantPlumbing && !wantElectrical && !wantCarpentry && !wantRagging) ||
-                (wantPlumbing && c.getCategory() != null && c.getCategory().toString().toLowerCase(Locale.ROOT).contains("plumb")) ||
-                (wantElectrical && c.getCategory() != null && c.getCategory().toString().toLowerCase(Locale.ROOT).contains("electric")) ||
-                (wantCarpentry && c.getCategory() != null && c.getCategory().toString().toLowerCase(Locale.ROOT).contains("carpent")) ||
-                (wantRagging && c.getCategory() != null && c.getCategory().toString().toLowerCase(Locale.ROOT).contains("ragging"));
-
-            boolean statusMatch =
-                (!wantOpen && !wantResolved && !wantInProgress) ||
-                (wantOpen && c.getStatus() != null && c.getStatus().toString().toLowerCase(Locale.ROOT).contains("open")) ||
-                (wantResolved && c.getStatus() != null && c.getStatus().toString().toLowerCase(Locale.ROOT).contains("resolved")) ||
-                (wantInProgress && c.getStatus() != null && c.getStatus().toString().toLowerCase(Locale.ROOT).contains("progress"));
-
-            return catMatch && statusMatch;
-        }).collect(Collectors.toList());
+    // Either a prompt for the LLM or an answer that needs no LLM call
+    private record QaPrompt(String systemPrompt, String context, List<Long> sourceIds, String directAnswer) {
+        static QaPrompt direct(String answer) {
+            return new QaPrompt(null, null, List.of(), answer);
+        }
+    }
+
+    private List<Long> complaintIds(List<Complaint> complaints) {
+        return complaints.stream().map(Complaint::getId).collect(Collectors.toList());
     }
 
     // Basic regex-based masking of PII in free-text fields before sending to the LLM
@@ -197,12 +252,4 @@ public class AgentQaService {
         masked = PHONE_PATTERN.matcher(masked).replaceAll("[phone hidden]");
         return masked;
     }
-
-    private void saveHistory(Long userId, boolean admin, String question, String answer) {
-        if (userId == null || question == null || answer == null) {
-            return;
-        }
-        QaHistory history = new QaHistory(userId, admin, question, answer, LocalDateTime.now());
-        qaHistoryRepository.save(history);
-    }
 }
@@ -11,7 +11,6 @@ import com.hostel.entity.PriorityLevel;
 import com.hostel.entity.Status;
 import com.hostel.entity.User;
 import com.hostel.exception.ResourceNotFoundException;
-import com.hostel.repository.ComplaintRepository;
 import com.hostel.repository.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -20,6 +19,7 @@ import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.util.Locale;
+import java.util.Optional;
 
 @Service
 public class AiComplaintService {
@@ -30,49 +30,92 @@ public class AiComplaintService {
     private UserRepository userRepository;
 
     @Autowired
-    private ComplaintRepository complaintRepository;
+    private RagLlmClient ragLlmClient;
 
     @Autowired
-    private RagLlmClient ragLlmClient;
+    private ComplaintIndexQueue indexQueue;
+
+    @Autowired
+    private ComplaintStatsAggregate statsAggregate;
 
     @Autowired
-    private ChromaClient chromaClient;
+    private ComplaintCategoryClassifier categoryClassifier;
+
+    @Autowired
+    private DuplicateComplaintDetector duplicateDetector;
+
+    @Autowired
+    private ComplaintService complaintService;
 
     private final ObjectMapper objectMapper = new ObjectMapper();
 
-    public ComplaintDTO generateComplaint(String description, String username) {
+    private static final String FULL_PROMPT = "You are an assistant that converts hostel complaint descriptions into JSON. " +
+            "Return ONLY valid JSON with these keys and no extra text: " +
+            "category, sub_category, specific_category, block, room_no, priority_level, message_type, " +
+            "room_type, building_code, sub_block. " +
+            "Use UPPERCASE for category and message_type. " +
+            "Allowed category values: CARPENTRY, ELECTRICAL, PLUMBING, RAGGING. " +
+            "Allowed message_type values: GRIEVANCE, ASSISTANCE, ENQUIRY, FEEDBACK, POSITIVE_FEEDBACK. " +
+            "Allowed priority_level values: LOW, MEDIUM, HIGH, CRITICAL. " +
+            "Use null if a field cannot be inferred.";
+
+    // Used when the category already came from the k-NN vote over similar complaints
+    private static final String FIELDS_PROMPT = "Convert this hostel complaint into JSON. " +
+            "Return ONLY valid JSON with keys: " +
+            "sub_category, specific_category, block, room_no, priority_level, message_type, " +
+            "room_type, building_code, sub_block. " +
+            "message_type: GRIEVANCE, ASSISTANCE, ENQUIRY, FEEDBACK or POSITIVE_FEEDBACK. " +
+            "priority_level: LOW, MEDIUM, HIGH or CRITICAL. " +
+            "Use null if unknown.";
+
+    public ComplaintDTO generateComplaint(String description, String username, boolean allowDuplicate) {
         if (description == null || description.isBlank()) {
             throw new IllegalArgumentException("Description is required");
         }
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found: " + username));
 
-        String systemPrompt = "You are an assistant that converts hostel complaint descriptions into JSON. " +
-                "Return ONLY valid JSON with these keys and no extra text: " +
-                "category, sub_category, specific_category, block, room_no, priority_level, message_type, " +
-                "room_type, building_code, sub_block. " +
-                "Use UPPERCASE for category and message_type. " +
-                "Allowed category values: CARPENTRY, ELECTRICAL, PLUMBING, RAGGING. " +
-                "Allowed message_type values: GRIEVANCE, ASSISTANCE, ENQUIRY, FEEDBACK, POSITIVE_FEEDBACK. " +
-                "Allowed priority_level values: LOW, MEDIUM, HIGH, CRITICAL. " +
-                "Use null if a field cannot be inferred.";
+        ComplaintCategoryClassifier.CategoryVote vote = categoryClassifier.vote(description);
+        String systemPrompt = vote.categoryFromVote() ? FIELDS_PROMPT : FULL_PROMPT;
 
         String response = ragLlmClient.generateAnswer(systemPrompt, description, "");
         AiStructuredComplaintFields fields = parseStructuredFields(response);
 
-        Category category = parseCategory(fields.getCategory());
+        Category category;
+        if (vote.categoryFromVote()) {
+            category = vote.category();
+        } else {
+            category = parseCategory(fields.getCategory());
+            categoryClassifier.recordAgreement(vote, category);
+            if (category == null && vote.confident()) {
+                category = vote.category();
+            }
+        }
         MessageType messageType = parseMessageType(fields.getMessageType());
         PriorityLevel priorityLevel = parsePriorityLevel(fields.getPriorityLevel());
         if (category == null || messageType == null || priorityLevel == null) {
             throw new IllegalArgumentException("AI did not return required fields");
         }
 
+        // Same check as the form path, once the LLM has inferred the category and block
+        String block = cleanValue(fields.getBlock());
+        if (!allowDuplicate) {
+            Optional<DuplicateComplaintDetector.Match> duplicate = duplicateDetector.findDuplicate(category, block, description);
+            if (duplicate.isPresent()) {
+                ComplaintDTO linked = complaintService.linkAsMeToo(duplicate.get().complaintId(), user,
+                        cleanValue(fields.getRoomNo()), description.trim());
+                if (linked != null) {
+                    return linked;
+                }
+            }
+        }
+
         Complaint complaint = new Complaint();
         complaint.setDescription(description.trim());
         complaint.setCategory(category);
         complaint.setSubCategory(cleanValue(fields.getSubCategory()));
         complaint.setSpecificCategory(cleanValue(fields.getSpecificCategory()));
-        complaint.setBlock(cleanValue(fields.getBlock()));
+        complaint.setBlock(block);
         complaint.setSubBlock(cleanValue(fields.getSubBlock()));
         complaint.setRoomNo(cleanValue(fields.getRoomNo()));
         complaint.setRoomType(cleanValue(fields.getRoomType()));
@@ -94,8 +137,9 @@ public class AiComplaintService {
         complaint.setTimeSlot(null);
         complaint.setPreferredTimeSlot(null);
 
-        Complaint saved = complaintRepository.save(complaint);
-        chromaClient.upsertComplaint(saved);
+        // Only the insert and its outbox row share a transaction; the LLM call above stays outside it
+        Complaint saved = indexQueue.saveAndEnqueue(complaint);
+        statsAggregate.onCreated(saved);
 
         return toDTO(saved);
     }
@@ -1,162 +1,270 @@
 package com.hostel.service;
 
+import com.hostel.dto.EmbeddingVector;
 import com.hostel.entity.Category;
 import com.hostel.entity.Complaint;
+import com.hostel.entity.EmbeddingState;
+import com.hostel.repository.EmbeddingStateRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.regex.Pattern;
 
+/**
+ * Complaint-level entry point to the vector index: masks PII, embeds descriptions and
+ * delegates storage and search to the configured {@link VectorStore} (Chroma by default).
+ */
 @Service
 public class ChromaClient {
 
-    @Value("${chroma.url:}")
-    private String chromaUrl;
-
-    @Value("${chroma.collection:hostel_complaints_embeddings}")
-    private String collection;
+    private static final Logger logger = LoggerFactory.getLogger(ChromaClient.class);
 
     @Autowired
     private GeminiEmbeddingClient embeddingClient;
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    @Autowired
+    private VectorStore vectorStore;
+
+    @Autowired
+    private EmbeddingStateRepository stateRepository;
 
     private static final Pattern EMAIL_PATTERN = Pattern.compile("[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[A-Za-z]{2,}");
     private static final Pattern PHONE_PATTERN = Pattern.compile("(?<!\\d)(?:\\+?\\d[\\s-]?){7,15}(?!\\d)");
 
-    public void ensureCollection() {
-        if (chromaUrl == null || chromaUrl.isBlank()) {
-            return;
-        }
-
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
+    /**
+     * @return false when the existing collection has to be rebuilt with {@link #recreateIndex()}
+     */
+    public boolean ensureCollection() {
+        return vectorStore.ensureCollection();
+    }
 
-        Map<String, Object> body = new HashMap<>();
-        body.put("name", collection);
+    /**
+     * Empties the vector index and forgets what was indexed, so every complaint is embedded
+     * and upserted again by the next sync.
+     */
+    public void recreateIndex() {
+        vectorStore.recreateCollection();
+        stateRepository.deleteAllInBatch();
+    }
 
-        HttpEntity<Map<String, Object>> entity = new HttpEntity<>(body, headers);
-        try {
-            restTemplate.postForLocation(chromaUrl + "/api/v1/collections", entity);
-        } catch (Exception ex) {
-            // Ignore if collection already exists or server is not reachable
-        }
+    public boolean isEnabled() {
+        return vectorStore.isEnabled();
     }
 
     public void upsertComplaint(Complaint complaint) {
         if (complaint == null || complaint.getId() == null) {
             return;
         }
-        if (chromaUrl == null || chromaUrl.isBlank()) {
-            return;
-        }
-        if (complaint.getCategory() == null || complaint.getDescription() == null || complaint.getDescription().isBlank()) {
+        if (!isEnabled() || !isIndexable(complaint)) {
             return;
         }
 
-        String masked = maskPii(complaint.getDescription());
-        List<Double> embedding = embeddingClient.embed(masked);
-        if (embedding.isEmpty()) {
-            return;
+        try {
+            upsertComplaints(List.of(complaint));
+        } catch (Exception ex) {
+            // Best effort, like the other single-complaint paths
         }
+    }
 
-        Map<String, Object> meta = new HashMap<>();
-        meta.put("category", complaint.getCategory().name());
+    /**
+     * Embeds and upserts several complaints with a single store call. Unlike
+     * {@link #upsertComplaint(Complaint)} failures are thrown so callers can retry.
+     * Complaints without a category or description are skipped, as are complaints whose
+     * indexed content and embedding model are unchanged since the last upsert.
+     *
+     * @return the number of complaints actually written to the store
+     */
+    public int upsertComplaints(List<Complaint> complaints) {
+        return upsertComplaints(complaints, false);
+    }
 
-        Map<String, Object> body = new HashMap<>();
-        body.put("ids", List.of(String.valueOf(complaint.getId())));
-        body.put("embeddings", List.of(embedding));
-        body.put("metadatas", List.of(meta));
-        body.put("documents", List.of(masked));
+    /**
+     * @param force re-embed and upsert even unchanged complaints, e.g. to rebuild a store that
+     *              was wiped independently of {@code embedding_state}
+     */
+    public int upsertComplaints(List<Complaint> complaints, boolean force) {
+        if (!isEnabled()) {
+            throw new IllegalStateException("Vector store is not configured");
+        }
+        List<PendingRecord> pending = new ArrayList<>();
+        for (Complaint complaint : complaints) {
+            if (complaint == null || complaint.getId() == null || !isIndexable(complaint)) {
+                continue;
+            }
+            String document = maskPii(complaint.getDescription());
+            Map<String, Object> metadata = toMetadata(complaint);
+            pending.add(new PendingRecord(complaint.getId(), document, metadata, stateHash(document, metadata)));
+        }
+        String model = embeddingClient.getModel();
+        if (!force) {
+            pending = withoutUnchanged(pending, model);
+        }
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        List<EmbeddingVector> embeddings = embeddingClient.embedBatch(
+                pending.stream().map(PendingRecord::document).toList());
 
-        postJson(chromaUrl + "/api/v1/collections/" + collection + "/upsert", body);
+        List<VectorStore.VectorRecord> records = new ArrayList<>(pending.size());
+        for (int i = 0; i < pending.size(); i++) {
+            PendingRecord record = pending.get(i);
+            records.add(new VectorStore.VectorRecord(String.valueOf(record.complaintId()),
+                    embeddings.get(i), record.document(), record.metadata()));
+        }
+        vectorStore.upsert(records);
+        recordState(pending, model);
+        return records.size();
     }
 
-    public List<QueryCandidate> queryCategories(String description, int topK) {
-        if (description == null || description.isBlank()) {
-            return Collections.emptyList();
+    private List<PendingRecord> withoutUnchanged(List<PendingRecord> pending, String model) {
+        if (pending.isEmpty()) {
+            return pending;
         }
-        if (chromaUrl == null || chromaUrl.isBlank()) {
-            return Collections.emptyList();
+        Map<Long, EmbeddingState> states = new HashMap<>();
+        try {
+            for (EmbeddingState state : stateRepository.findAllById(
+                    pending.stream().map(PendingRecord::complaintId).toList())) {
+                states.put(state.getComplaintId(), state);
+            }
+        } catch (Exception ex) {
+            logger.warn("Could not read embedding state, re-indexing {} complaints: {}", pending.size(), ex.getMessage());
+            return pending;
+        }
+        List<PendingRecord> changed = new ArrayList<>();
+        for (PendingRecord record : pending) {
+            EmbeddingState state = states.get(record.complaintId());
+            if (state == null || !state.matches(record.contentHash(), model)) {
+                changed.add(record);
+            }
         }
+        return changed;
+    }
 
-        String masked = maskPii(description);
-        List<Double> embedding = embeddingClient.embed(masked);
-        if (embedding.isEmpty()) {
-            return Collections.emptyList();
+    // The store already has the vectors; losing a state row only costs a re-embed later
+    private void recordState(List<PendingRecord> written, String model) {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            for (PendingRecord record : written) {
+                stateRepository.upsert(record.complaintId(), record.contentHash(), model, now);
+            }
+        } catch (Exception ex) {
+            logger.warn("Could not record embedding state: {}", ex.getMessage());
         }
+    }
 
-        Map<String, Object> body = new HashMap<>();
-        body.put("query_embeddings", List.of(embedding));
-        body.put("n_results", Math.max(1, topK));
-        body.put("include", List.of("metadatas", "distances"));
+    private boolean isIndexable(Complaint complaint) {
+        return complaint.getCategory() != null
+                && complaint.getDescription() != null
+                && !complaint.getDescription().isBlank();
+    }
 
-        Map<String, Object> response = postJson(chromaUrl + "/api/v1/collections/" + collection + "/query", body);
-        if (response == null) {
-            return Collections.emptyList();
+    // Chroma rejects null metadata values, so unknown fields are left out
+    private Map<String, Object> toMetadata(Complaint complaint) {
+        Map<String, Object> meta = new HashMap<>();
+        meta.put(ComplaintVectorFilter.CATEGORY, complaint.getCategory().name());
+        if (complaint.getStatus() != null) {
+            meta.put(ComplaintVectorFilter.STATUS, complaint.getStatus().name());
+        }
+        String block = ComplaintVectorFilter.blockValue(complaint.getBlock());
+        if (block != null) {
+            meta.put(ComplaintVectorFilter.BLOCK, block);
+        }
+        if (complaint.getPriorityLevel() != null) {
+            meta.put(ComplaintVectorFilter.PRIORITY, complaint.getPriorityLevel().name());
+        }
+        if (complaint.getCreatedAt() != null) {
+            meta.put(ComplaintVectorFilter.CREATED_AT, ComplaintVectorFilter.epochSeconds(complaint.getCreatedAt()));
+        }
+        if (complaint.getRaisedBy() != null && complaint.getRaisedBy().getId() != null) {
+            meta.put(ComplaintVectorFilter.RAISED_BY, complaint.getRaisedBy().getId());
         }
+        return meta;
+    }
+
+    // Covers everything written to the store, so metadata-only changes are upserted too
+    private static String stateHash(String document, Map<String, Object> metadata) {
+        return EmbeddingCache.contentHash(document + "\n" + new TreeMap<>(metadata));
+    }
+
+    /**
+     * Embeds a complaint description exactly as the index does (PII masked), so the vector is
+     * comparable with indexed ones and shares their embedding cache entries.
+     */
+    public EmbeddingVector embedDescription(String description) {
+        if (description == null || description.isBlank()) {
+            return EmbeddingVector.empty();
+        }
+        return embeddingClient.embed(maskPii(description));
+    }
+
+    /**
+     * Vectors of already-embedded complaints, read from the embedding cache without calling the
+     * API. Aligned with {@code complaints}; complaints never embedded map to an empty vector.
+     */
+    public List<EmbeddingVector> cachedEmbeddings(List<Complaint> complaints) {
+        List<String> documents = new ArrayList<>(complaints.size());
+        for (Complaint complaint : complaints) {
+            documents.add(complaint.getDescription() != null ? maskPii(complaint.getDescription()) : null);
+        }
+        return embeddingClient.cachedEmbeddings(documents);
+    }
 
+    public List<QueryCandidate> queryCategories(String description, int topK) {
+        return queryCategories(description, topK, ComplaintVectorFilter.any());
+    }
+
+    public List<QueryCandidate> queryCategories(String description, int topK, ComplaintVectorFilter filter) {
         List<QueryCandidate> candidates = new ArrayList<>();
-        List<?> metadatasNested = getFirstNestedList(response.get("metadatas"));
-        List<?> distancesNested = getFirstNestedList(response.get("distances"));
-
-        for (int i = 0; i < metadatasNested.size(); i++) {
-            Object metaObj = metadatasNested.get(i);
-            String category = null;
-            if (metaObj instanceof Map<?, ?> metaMap) {
-                Object catObj = metaMap.get("category");
-                if (catObj != null) {
-                    category = String.valueOf(catObj).toUpperCase(Locale.ROOT);
-                }
-            }
-            Double distance = null;
-            if (i < distancesNested.size()) {
-                Object distObj = distancesNested.get(i);
-                if (distObj instanceof Number number) {
-                    distance = number.doubleValue();
-                }
-            }
-            if (category != null) {
-                candidates.add(new QueryCandidate(category, distance));
+        for (VectorStore.VectorMatch match : search(description, topK, filter)) {
+            Object catObj = match.metadata().get(ComplaintVectorFilter.CATEGORY);
+            if (catObj != null) {
+                candidates.add(new QueryCandidate(String.valueOf(catObj).toUpperCase(Locale.ROOT), match.distance()));
             }
         }
 
         return candidates;
     }
 
-    private Map<String, Object> postJson(String url, Map<String, Object> body) {
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        HttpEntity<Map<String, Object>> entity = new HttpEntity<>(body, headers);
-
-        try {
-            @SuppressWarnings("unchecked")
-            Map<String, Object> response = restTemplate.postForObject(url, entity, Map.class);
-            return response;
-        } catch (Exception ex) {
-            return null;
+    /**
+     * Complaints whose descriptions are closest to {@code text}, closest first, restricted by
+     * {@code filter} inside the store rather than after the fact.
+     */
+    public List<SimilarComplaint> querySimilar(String text, int topK, ComplaintVectorFilter filter) {
+        List<SimilarComplaint> similar = new ArrayList<>();
+        for (VectorStore.VectorMatch match : search(text, topK, filter)) {
+            try {
+                similar.add(new SimilarComplaint(Long.valueOf(match.id()), match.distance(), match.metadata()));
+            } catch (NumberFormatException ex) {
+                // Not a complaint record
+            }
         }
+        return similar;
     }
 
-    private List<?> getFirstNestedList(Object nested) {
-        if (nested instanceof List<?> outer && !outer.isEmpty()) {
-            Object first = outer.get(0);
-            if (first instanceof List<?> inner) {
-                return inner;
-            }
+    private List<VectorStore.VectorMatch> search(String text, int topK, ComplaintVectorFilter filter) {
+        if (text == null || text.isBlank()) {
+            return Collections.emptyList();
+        }
+        if (!isEnabled()) {
+            return Collections.emptyList();
+        }
+
+        String masked = maskPii(text);
+        EmbeddingVector embedding = embeddingClient.embed(masked);
+        if (embedding.isEmpty()) {
+            return Collections.emptyList();
         }
-        return Collections.emptyList();
+        return vectorStore.query(embedding, topK, filter.toWhere());
     }
 
     private String maskPii(String text) {
@@ -165,6 +273,10 @@ public class ChromaClient {
         return masked;
     }
 
+    private record PendingRecord(Long complaintId, String document, Map<String, Object> metadata, String contentHash) {}
+
+    public record SimilarComplaint(Long complaintId, Double distance, Map<String, Object> metadata) {}
+
     public record QueryCandidate(String category, Double distance) {
         public Category asCategory() {
             try {
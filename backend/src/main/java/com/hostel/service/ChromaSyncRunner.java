@@ -1,37 +1,45 @@
 package com.hostel.service;
 
-import com.hostel.entity.Complaint;
-import com.hostel.repository.ComplaintRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.ApplicationRunner;
 import org.springframework.stereotype.Component;
 
-import java.util.List;
-
+/**
+ * Kicks off the vector re-sync at startup without waiting for it, so the application is
+ * ready immediately. An unfinished previous run is resumed from its checkpoint. A collection
+ * created with another distance space is always rebuilt, even with {@code chroma.syncOnStartup} off.
+ */
 @Component
 public class ChromaSyncRunner implements ApplicationRunner {
 
+    private static final Logger logger = LoggerFactory.getLogger(ChromaSyncRunner.class);
+
     @Value("${chroma.syncOnStartup:false}")
     private boolean syncOnStartup;
 
     @Autowired
-    private ComplaintRepository complaintRepository;
+    private VectorResyncJob resyncJob;
 
     @Autowired
     private ChromaClient chromaClient;
 
     @Override
     public void run(ApplicationArguments args) {
-        if (!syncOnStartup) {
+        if (!chromaClient.isEnabled()) {
             return;
         }
 
-        chromaClient.ensureCollection();
-        List<Complaint> complaints = complaintRepository.findAll();
-        for (Complaint complaint : complaints) {
-            chromaClient.upsertComplaint(complaint);
+        try {
+            if (!syncOnStartup && chromaClient.ensureCollection()) {
+                return;
+            }
+            resyncJob.start(true);
+        } catch (Exception ex) {
+            logger.warn("Could not start vector re-sync: {}", ex.getMessage());
         }
     }
 }
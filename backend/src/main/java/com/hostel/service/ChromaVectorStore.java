@@ -0,0 +1,234 @@
+package com.hostel.service;
+
+import com.hostel.dto.EmbeddingVector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link VectorStore} backed by an external Chroma server over its v1 REST API. The collection
+ * is created with {@code hnsw:space=cosine} so distances match {@link LocalVectorStore} and the
+ * thresholds callers apply.
+ */
+@Component
+@ConditionalOnProperty(name = "vector.store", havingValue = "chroma", matchIfMissing = true)
+public class ChromaVectorStore implements VectorStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChromaVectorStore.class);
+    private static final String DISTANCE_SPACE = "cosine";
+
+    @Value("${chroma.url:}")
+    private String chromaUrl;
+
+    @Value("${chroma.collection:hostel_complaints_embeddings}")
+    private String collection;
+
+    @Autowired
+    @Qualifier("chromaRestTemplate")
+    private RestTemplate restTemplate;
+
+    @Override
+    public boolean isEnabled() {
+        return chromaUrl != null && !chromaUrl.isBlank();
+    }
+
+    @Override
+    public boolean ensureCollection() {
+        if (!isEnabled()) {
+            return true;
+        }
+
+        Map<String, Object> body = new HashMap<>();
+        body.put("name", collection);
+        body.put("metadata", Map.of("hnsw:space", DISTANCE_SPACE));
+        body.put("get_or_create", true);
+
+        Map<?, ?> created;
+        try {
+            created = restTemplate.postForObject(chromaUrl + "/api/v1/collections",
+                    new HttpEntity<>(body, jsonHeaders()), Map.class);
+        } catch (Exception ex) {
+            // Ignore if the server is not reachable; the next sync retries
+            return true;
+        }
+        // The space is fixed at creation, so a collection made by an older version keeps squared L2
+        Object space = created != null && created.get("metadata") instanceof Map<?, ?> metadata
+                ? metadata.get("hnsw:space") : null;
+        if (!DISTANCE_SPACE.equals(space)) {
+            logger.warn("Chroma collection {} uses distance space {}, expected {}; it needs a full rebuild",
+                    collection, space == null ? "l2" : space, DISTANCE_SPACE);
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public void recreateCollection() {
+        if (!isEnabled()) {
+            throw new IllegalStateException("Chroma is not configured");
+        }
+        try {
+            restTemplate.delete(chromaUrl + "/api/v1/collections/" + collection);
+        } catch (HttpClientErrorException ex) {
+            // Nothing to drop
+        }
+        if (!ensureCollection()) {
+            throw new IllegalStateException("Chroma collection " + collection + " was not recreated with cosine distance");
+        }
+        logger.info("Recreated Chroma collection {} with {} distance", collection, DISTANCE_SPACE);
+    }
+
+    @Override
+    public void upsert(List<VectorRecord> records) {
+        if (!isEnabled()) {
+            throw new IllegalStateException("Chroma is not configured");
+        }
+        if (records.isEmpty()) {
+            return;
+        }
+
+        List<String> ids = new ArrayList<>(records.size());
+        List<EmbeddingVector> embeddings = new ArrayList<>(records.size());
+        List<Map<String, Object>> metadatas = new ArrayList<>(records.size());
+        List<String> documents = new ArrayList<>(records.size());
+        for (VectorRecord record : records) {
+            ids.add(record.id());
+            embeddings.add(record.embedding());
+            metadatas.add(record.metadata());
+            documents.add(record.document());
+        }
+
+        Map<String, Object> body = new HashMap<>();
+        body.put("ids", ids);
+        body.put("embeddings", embeddings);
+        body.put("metadatas", metadatas);
+        body.put("documents", documents);
+
+        restTemplate.postForEntity(chromaUrl + "/api/v1/collections/" + collection + "/upsert",
+                new HttpEntity<>(body, jsonHeaders()), String.class);
+    }
+
+    @Override
+    public void delete(Collection<String> ids) {
+        if (!isEnabled()) {
+            throw new IllegalStateException("Chroma is not configured");
+        }
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        Map<String, Object> body = new HashMap<>();
+        body.put("ids", List.copyOf(ids));
+
+        restTemplate.postForEntity(chromaUrl + "/api/v1/collections/" + collection + "/delete",
+                new HttpEntity<>(body, jsonHeaders()), String.class);
+    }
+
+    @Override
+    public List<VectorMatch> query(EmbeddingVector embedding, int topK, Map<String, Object> where) {
+        if (!isEnabled() || embedding.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Map<String, Object> body = new HashMap<>();
+        body.put("query_embeddings", List.of(embedding));
+        body.put("n_results", Math.max(1, topK));
+        body.put("include", List.of("metadatas", "distances"));
+        Map<String, Object> whereClause = toWhereClause(where);
+        if (whereClause != null) {
+            body.put("where", whereClause);
+        }
+
+        Map<String, Object> response;
+        try {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> result = restTemplate.postForObject(
+                    chromaUrl + "/api/v1/collections/" + collection + "/query",
+                    new HttpEntity<>(body, jsonHeaders()), Map.class);
+            response = result;
+        } catch (Exception ex) {
+            return Collections.emptyList();
+        }
+        if (response == null) {
+            return Collections.emptyList();
+        }
+
+        List<?> idsNested = getFirstNestedList(response.get("ids"));
+        List<?> metadatasNested = getFirstNestedList(response.get("metadatas"));
+        List<?> distancesNested = getFirstNestedList(response.get("distances"));
+
+        List<VectorMatch> matches = new ArrayList<>();
+        for (int i = 0; i < metadatasNested.size(); i++) {
+            Map<String, Object> metadata = new LinkedHashMap<>();
+            if (metadatasNested.get(i) instanceof Map<?, ?> metaMap) {
+                metaMap.forEach((key, value) -> metadata.put(String.valueOf(key), value));
+            }
+            Double distance = null;
+            if (i < distancesNested.size() && distancesNested.get(i) instanceof Number number) {
+                distance = number.doubleValue();
+            }
+            String id = i < idsNested.size() ? String.valueOf(idsNested.get(i)) : null;
+            matches.add(new VectorMatch(id, distance, metadata));
+        }
+        return matches;
+    }
+
+    // Chroma takes a single condition as is and several wrapped in {"$and": [...]}
+    private Map<String, Object> toWhereClause(Map<String, Object> where) {
+        if (where == null || where.isEmpty()) {
+            return null;
+        }
+        List<Map<String, Object>> conditions = new ArrayList<>();
+        where.forEach((key, value) -> {
+            if (value instanceof Collection<?> values) {
+                conditions.add(Map.of(key, Map.of("$in", List.copyOf(values))));
+            } else if (value instanceof Range range) {
+                if (range.min() != null) {
+                    conditions.add(Map.of(key, Map.of("$gte", range.min())));
+                }
+                if (range.max() != null) {
+                    conditions.add(Map.of(key, Map.of("$lte", range.max())));
+                }
+            } else {
+                conditions.add(Map.of(key, value));
+            }
+        });
+        if (conditions.isEmpty()) {
+            return null;
+        }
+        return conditions.size() == 1 ? conditions.get(0) : Map.of("$and", conditions);
+    }
+
+    private HttpHeaders jsonHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return headers;
+    }
+
+    private List<?> getFirstNestedList(Object nested) {
+        if (nested instanceof List<?> outer && !outer.isEmpty()) {
+            Object first = outer.get(0);
+            if (first instanceof List<?> inner) {
+                return inner;
+            }
+        }
+        return Collections.emptyList();
+    }
+}
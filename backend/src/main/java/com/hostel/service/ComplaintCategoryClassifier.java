@@ -0,0 +1,139 @@
+package com.hostel.service;
+
+import com.hostel.entity.Category;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Predicts a complaint's category from its nearest indexed neighbours, so AI ticket
+ * generation can leave the category out of the LLM prompt and only ask for the remaining
+ * fields. Only neighbours within {@code ai.category.vote.maxDistance} (cosine) take part, so a
+ * sparse index cannot outvote the LLM with unrelated complaints. Each votes with weight
+ * {@code 1 / (1 + distance)}; the vote is trusted when at least
+ * {@code ai.category.vote.minNeighbors} close neighbours were found and the winner's share of
+ * the total weight reaches {@code ai.category.vote.threshold}.
+ * <p>
+ * Agreement with the LLM is tracked whenever both answers exist: for votes below the
+ * threshold, and for a sampled fraction ({@code ai.category.vote.auditRate}) of trusted votes
+ * that are sent to the LLM anyway.
+ */
+@Service
+public class ComplaintCategoryClassifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(ComplaintCategoryClassifier.class);
+
+    @Autowired
+    private ChromaClient chromaClient;
+
+    @Value("${ai.category.vote.enabled:true}")
+    private boolean enabled;
+
+    @Value("${ai.category.vote.k:7}")
+    private int k;
+
+    @Value("${ai.category.vote.minNeighbors:3}")
+    private int minNeighbors;
+
+    @Value("${ai.category.vote.maxDistance:0.3}")
+    private double maxDistance;
+
+    @Value("${ai.category.vote.threshold:0.75}")
+    private double threshold;
+
+    @Value("${ai.category.vote.auditRate:0.05}")
+    private double auditRate;
+
+    private final Counter accepted;
+    private final Counter rejected;
+    private final Counter agreed;
+    private final Counter disagreed;
+
+    public ComplaintCategoryClassifier(MeterRegistry meterRegistry) {
+        this.accepted = Counter.builder("ai.category.vote").tag("outcome", "accepted").register(meterRegistry);
+        this.rejected = Counter.builder("ai.category.vote").tag("outcome", "rejected").register(meterRegistry);
+        this.agreed = Counter.builder("ai.category.vote.agreement").tag("result", "agree").register(meterRegistry);
+        this.disagreed = Counter.builder("ai.category.vote.agreement").tag("result", "disagree").register(meterRegistry);
+        Gauge.builder("ai.category.vote.agreement.rate", this, ComplaintCategoryClassifier::agreementRate)
+                .description("Share of compared predictions where the k-NN vote matched the LLM")
+                .register(meterRegistry);
+    }
+
+    public CategoryVote vote(String description) {
+        if (!enabled) {
+            return CategoryVote.NONE;
+        }
+        List<ChromaClient.QueryCandidate> neighbours;
+        try {
+            neighbours = chromaClient.queryCategories(description, k);
+        } catch (Exception ex) {
+            logger.warn("Category vote lookup failed: {}", ex.getMessage());
+            return CategoryVote.NONE;
+        }
+
+        Map<Category, Double> weights = new EnumMap<>(Category.class);
+        double total = 0;
+        int counted = 0;
+        for (ChromaClient.QueryCandidate neighbour : neighbours) {
+            Category category = neighbour.asCategory();
+            if (category == null || neighbour.distance() == null || neighbour.distance() > maxDistance) {
+                continue;
+            }
+            double distance = Math.max(0.0, neighbour.distance());
+            double weight = 1.0 / (1.0 + distance);
+            weights.merge(category, weight, Double::sum);
+            total += weight;
+            counted++;
+        }
+        if (counted == 0) {
+            return CategoryVote.NONE;
+        }
+
+        Map.Entry<Category, Double> winner = weights.entrySet().stream()
+                .max(Map.Entry.comparingByValue())
+                .orElseThrow();
+        double confidence = winner.getValue() / total;
+        boolean confident = counted >= minNeighbors && confidence >= threshold;
+        (confident ? accepted : rejected).increment();
+        boolean audit = confident && ThreadLocalRandom.current().nextDouble() < auditRate;
+        return new CategoryVote(winner.getKey(), confidence, counted, confident, audit);
+    }
+
+    /**
+     * Records whether the vote matched the category the LLM produced for the same description.
+     */
+    public void recordAgreement(CategoryVote vote, Category llmCategory) {
+        if (vote.category() == null || llmCategory == null) {
+            return;
+        }
+        (vote.category() == llmCategory ? agreed : disagreed).increment();
+    }
+
+    private double agreementRate() {
+        double compared = agreed.count() + disagreed.count();
+        return compared == 0 ? Double.NaN : agreed.count() / compared;
+    }
+
+    /**
+     * @param confident whether the category can be used without the LLM's own classification
+     * @param audit     trusted vote picked for comparison with the LLM anyway
+     */
+    public record CategoryVote(Category category, double confidence, int neighbours, boolean confident, boolean audit) {
+        static final CategoryVote NONE = new CategoryVote(null, 0, 0, false, false);
+
+        /** The category comes from this vote; the LLM is still called, but only for the other fields. */
+        public boolean categoryFromVote() {
+            return confident && !audit;
+        }
+    }
+}
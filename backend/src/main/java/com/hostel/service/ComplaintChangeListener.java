@@ -0,0 +1,38 @@
+package com.hostel.service;
+
+import com.hostel.entity.Complaint;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA listener on {@link Complaint}: an update or delete drops cached LLM answers whose
+ * context was built from that complaint, and the duplicate-detection candidates of its block.
+ * An insert only drops the candidates, so every creation path is seen by the detector.
+ */
+@Component
+public class ComplaintChangeListener {
+
+    @Autowired
+    @Lazy
+    private LlmAnswerCache answerCache;
+
+    @Autowired
+    @Lazy
+    private DuplicateComplaintDetector duplicateDetector;
+
+    @PostUpdate
+    @PostRemove
+    public void onComplaintChanged(Complaint complaint) {
+        answerCache.invalidateComplaint(complaint.getId());
+        duplicateDetector.onComplaintChanged(complaint);
+    }
+
+    @PostPersist
+    public void onComplaintCreated(Complaint complaint) {
+        duplicateDetector.onComplaintChanged(complaint);
+    }
+}
@@ -0,0 +1,100 @@
+package com.hostel.service;
+
+import com.hostel.entity.Complaint;
+import com.hostel.entity.ComplaintIndexOutbox;
+import com.hostel.repository.ComplaintIndexOutboxRepository;
+import com.hostel.repository.ComplaintRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Transactional outbox for Chroma indexing. Complaint writes enqueue here inside their own
+ * transaction; {@link ComplaintIndexWorker} claims due rows in batches and reports back.
+ */
+@Service
+public class ComplaintIndexQueue {
+
+    private static final Duration MAX_BACKOFF = Duration.ofHours(1);
+
+    @Autowired
+    private ComplaintIndexOutboxRepository outboxRepository;
+
+    @Autowired
+    private ComplaintRepository complaintRepository;
+
+    @Autowired
+    private ChromaClient chromaClient;
+
+    @Value("${chroma.index.leaseSeconds:120}")
+    private long leaseSeconds;
+
+    /**
+     * Saves a complaint and its outbox row in one transaction. Callers keep slow work (file
+     * storage, LLM calls, stats) outside it, so the transaction only spans the two writes.
+     */
+    @Transactional
+    public Complaint saveAndEnqueue(Complaint complaint) {
+        Complaint saved = complaintRepository.save(complaint);
+        enqueue(saved);
+        return saved;
+    }
+
+    @Transactional
+    public void enqueue(Complaint complaint) {
+        if (complaint == null || complaint.getId() == null || !chromaClient.isEnabled()) {
+            return;
+        }
+        outboxRepository.save(new ComplaintIndexOutbox(complaint.getId(), LocalDateTime.now()));
+    }
+
+    /**
+     * Claims up to {@code limit} due rows by pushing their next attempt past the lease,
+     * so a crashed worker's rows become visible again once the lease expires.
+     */
+    @Transactional
+    public List<ComplaintIndexOutbox> claimBatch(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = outboxRepository.lockDueIds(now, limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        outboxRepository.lease(ids, now.plusSeconds(leaseSeconds));
+        return outboxRepository.findAllById(ids);
+    }
+
+    @Transactional
+    public void markDone(List<ComplaintIndexOutbox> entries) {
+        outboxRepository.deleteAllInBatch(entries);
+    }
+
+    @Transactional
+    public void markFailed(List<ComplaintIndexOutbox> entries, String error) {
+        LocalDateTime now = LocalDateTime.now();
+        for (ComplaintIndexOutbox entry : entries) {
+            entry.setNextAttemptAt(now.plus(backoff(entry.getAttempts())));
+            entry.setLastError(error != null && error.length() > 1000 ? error.substring(0, 1000) : error);
+        }
+        outboxRepository.saveAll(entries);
+    }
+
+    public long pendingCount() {
+        return outboxRepository.count();
+    }
+
+    public LocalDateTime oldestPendingCreatedAt() {
+        return outboxRepository.findOldestCreatedAt();
+    }
+
+    // 5s, 10s, 20s ... capped at an hour
+    private Duration backoff(int attempts) {
+        long seconds = 5L << Math.min(Math.max(attempts - 1, 0), 20);
+        Duration delay = Duration.ofSeconds(seconds);
+        return delay.compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : delay;
+    }
+}
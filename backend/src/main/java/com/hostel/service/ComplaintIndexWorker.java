@@ -0,0 +1,115 @@
+package com.hostel.service;
+
+import com.hostel.entity.Complaint;
+import com.hostel.entity.ComplaintIndexOutbox;
+import com.hostel.repository.ComplaintRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Drains the complaint index outbox in the background: each batch is embedded and sent to
+ * Chroma in one upsert, failures are rescheduled with backoff. Exposes queue depth and the
+ * age of the oldest pending entry as metrics.
+ */
+@Component
+public class ComplaintIndexWorker {
+
+    private static final Logger logger = LoggerFactory.getLogger(ComplaintIndexWorker.class);
+
+    @Autowired
+    private ComplaintIndexQueue indexQueue;
+
+    @Autowired
+    private ComplaintRepository complaintRepository;
+
+    @Autowired
+    private ChromaClient chromaClient;
+
+    @Value("${chroma.index.batchSize:32}")
+    private int batchSize;
+
+    @Value("${chroma.index.maxBatchesPerRun:20}")
+    private int maxBatchesPerRun;
+
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong lagSeconds = new AtomicLong();
+    private final Counter indexed;
+    private final Counter unchanged;
+    private final Counter failed;
+
+    public ComplaintIndexWorker(MeterRegistry meterRegistry) {
+        Gauge.builder("complaint.index.outbox.pending", pending, AtomicLong::get)
+                .description("Complaints waiting to be indexed in Chroma")
+                .register(meterRegistry);
+        Gauge.builder("complaint.index.outbox.lag", lagSeconds, AtomicLong::get)
+                .description("Age of the oldest pending outbox entry")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        this.indexed = Counter.builder("complaint.index.indexed").register(meterRegistry);
+        this.unchanged = Counter.builder("complaint.index.unchanged")
+                .description("Complaints not re-embedded because they were unchanged or had nothing to index")
+                .register(meterRegistry);
+        this.failed = Counter.builder("complaint.index.failed").register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${chroma.index.pollMs:2000}", fixedDelayString = "${chroma.index.pollMs:2000}")
+    public void drain() {
+        if (!chromaClient.isEnabled()) {
+            return;
+        }
+        try {
+            for (int i = 0; i < maxBatchesPerRun; i++) {
+                List<ComplaintIndexOutbox> batch = indexQueue.claimBatch(batchSize);
+                if (batch.isEmpty()) {
+                    break;
+                }
+                process(batch);
+            }
+        } catch (Exception ex) {
+            logger.warn("Complaint index worker run failed: {}", ex.getMessage());
+        } finally {
+            refreshLagMetrics();
+        }
+    }
+
+    private void process(List<ComplaintIndexOutbox> batch) {
+        List<Long> complaintIds = batch.stream()
+                .map(ComplaintIndexOutbox::getComplaintId)
+                .distinct()
+                .collect(Collectors.toList());
+        try {
+            List<Complaint> complaints = complaintRepository.findAllById(complaintIds);
+            int written = chromaClient.upsertComplaints(complaints);
+            indexQueue.markDone(batch);
+            indexed.increment(written);
+            unchanged.increment(complaints.size() - written);
+        } catch (Exception ex) {
+            logger.warn("Indexing {} complaints failed, will retry: {}", complaintIds.size(), ex.getMessage());
+            indexQueue.markFailed(batch, ex.getMessage());
+            failed.increment(batch.size());
+        }
+    }
+
+    private void refreshLagMetrics() {
+        try {
+            pending.set(indexQueue.pendingCount());
+            LocalDateTime oldest = indexQueue.oldestPendingCreatedAt();
+            lagSeconds.set(oldest == null ? 0 : Math.max(0, Duration.between(oldest, LocalDateTime.now()).getSeconds()));
+        } catch (Exception ex) {
+            logger.debug("Could not refresh index lag metrics: {}", ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.hostel.service;
+
+import com.hostel.entity.Complaint;
+import com.hostel.repository.ComplaintRepository;
+import com.hostel.repository.ComplaintSpecifications;
+import com.hostel.repository.ComplaintTextQuery;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Hybrid retrieval for the Q&A assistant. Candidates come from three rankings: the SQL filters
+ * parsed from the question (newest first), PostgreSQL full-text search over its remaining
+ * words, and vector similarity in the complaint index. They are merged with reciprocal rank
+ * fusion, re-checked against the filters, and packed in fused order until the token budget or
+ * complaint limit is reached. Nothing here scans the whole complaints table.
+ */
+@Service
+public class ComplaintRetriever {
+
+    private static final Logger logger = LoggerFactory.getLogger(ComplaintRetriever.class);
+
+    // Reciprocal rank fusion constant; damps the advantage of the very first ranks
+    private static final int RRF_K = 60;
+
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "createdAt")
+            .and(Sort.by(Sort.Direction.DESC, "id"));
+
+    @Autowired
+    private ComplaintRepository complaintRepository;
+
+    @Autowired
+    private ChromaClient chromaClient;
+
+    @Autowired
+    private ComplaintSearchIndexInitializer searchIndexInitializer;
+
+    @Value("${qa.retrieval.candidatesPerSource:100}")
+    private int candidatesPerSource;
+
+    @Value("${qa.retrieval.vectorTopK:40}")
+    private int vectorTopK;
+
+    private final Timer retrievalTimer;
+
+    public ComplaintRetriever(MeterRegistry meterRegistry) {
+        this.retrievalTimer = Timer.builder("qa.retrieval")
+                .description("Hybrid retrieval of Q&A context complaints")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param raisedById   restrict to one reporter's complaints, or null for all (admin)
+     * @param tokenBudget  approximate token limit for the rendered context
+     * @param renderer     renders one complaint as it should appear in the context
+     */
+    public Retrieval retrieve(String question, Long raisedById, int maxComplaints, int tokenBudget,
+                              Function<Complaint, String> renderer) {
+        return retrievalTimer.record(() -> {
+            QuestionIntent intent = QuestionIntent.parse(question, LocalDate.now());
+            Specification<Complaint> filters = Specification
+                    .where(ComplaintSpecifications.raisedBy(raisedById))
+                    .and(ComplaintSpecifications.categoryIn(intent.categories()))
+                    .and(ComplaintSpecifications.statusIn(intent.statuses()))
+                    .and(ComplaintSpecifications.createdFrom(intent.from()))
+                    .and(ComplaintSpecifications.createdBefore(intent.to()));
+
+            Map<Long, Double> fused = new HashMap<>();
+            // Without filters the SQL ranking is plain recency, a weak relevance signal
+            fuse(fused, sqlRanking(filters), intent.hasFilters() ? 1.0 : 0.5);
+            fuse(fused, textRanking(intent, raisedById), 1.0);
+            fuse(fused, vectorRanking(question, intent, raisedById), 1.0);
+
+            List<Complaint> ranked = hydrate(fused, filters);
+            List<Complaint> selected = new ArrayList<>();
+            StringBuilder context = new StringBuilder();
+            int tokens = 0;
+            for (Complaint complaint : ranked) {
+                if (selected.size() >= maxComplaints) {
+                    break;
+                }
+                String snippet = renderer.apply(complaint);
+                int cost = estimateTokens(snippet);
+                if (tokens + cost > tokenBudget && !selected.isEmpty()) {
+                    break;
+                }
+                selected.add(complaint);
+                context.append(snippet).append('\n');
+                tokens += cost;
+            }
+
+            // Counting questions get the exact number; the context only holds the best matches
+            Long matching = intent.aggregate() ? complaintRepository.count(filters) : null;
+            return new Retrieval(selected, context.toString(), matching);
+        });
+    }
+
+    private List<Long> sqlRanking(Specification<Complaint> filters) {
+        return complaintRepository.findBy(filters, q -> q.sortBy(NEWEST_FIRST).limit(candidatesPerSource).all())
+                .stream()
+                .map(Complaint::getId)
+                .toList();
+    }
+
+    private List<Long> textRanking(QuestionIntent intent, Long raisedById) {
+        String text = intent.textQuery();
+        if (text == null) {
+            return List.of();
+        }
+        try {
+            ComplaintTextQuery query = new ComplaintTextQuery(text, false, raisedById, null,
+                    intent.categories().size() == 1 ? intent.categories().iterator().next() : null,
+                    intent.from(), intent.to(), null, null);
+            List<Object[]> rows = complaintRepository.searchRanked(query, candidatesPerSource);
+            if (rows.isEmpty() && searchIndexInitializer.isTrigramEnabled()) {
+                // Misspelt words ("leakage in bathrom") still find something by similarity
+                rows = complaintRepository.searchRanked(new ComplaintTextQuery(String.join(" ", intent.keywords()),
+                        true, raisedById, null, query.category(), intent.from(), intent.to(), null, null), candidatesPerSource);
+            }
+            return rows.stream().map(row -> ((Number) row[0]).longValue()).toList();
+        } catch (Exception ex) {
+            logger.debug("Full-text retrieval unavailable: {}", ex.getMessage());
+            return List.of();
+        }
+    }
+
+    private List<Long> vectorRanking(String question, QuestionIntent intent, Long raisedById) {
+        if (!chromaClient.isEnabled()) {
+            return List.of();
+        }
+        try {
+            ComplaintVectorFilter filter = ComplaintVectorFilter.any()
+                    .raisedBy(raisedById)
+                    .categoryIn(intent.categories())
+                    .statusIn(intent.statuses())
+                    .createdBetween(intent.from(), intent.to());
+            return chromaClient.querySimilar(question, vectorTopK, filter).stream()
+                    .map(ChromaClient.SimilarComplaint::complaintId)
+                    .toList();
+        } catch (Exception ex) {
+            logger.debug("Vector retrieval unavailable: {}", ex.getMessage());
+            return List.of();
+        }
+    }
+
+    private static void fuse(Map<Long, Double> scores, List<Long> ranking, double weight) {
+        for (int rank = 0; rank < ranking.size(); rank++) {
+            scores.merge(ranking.get(rank), weight / (RRF_K + rank + 1), Double::sum);
+        }
+    }
+
+    // Loads the best fused candidates in one statement; the filters drop stale vector or text hits
+    private List<Complaint> hydrate(Map<Long, Double> fused, Specification<Complaint> filters) {
+        if (fused.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = fused.entrySet().stream()
+                .sorted(Map.Entry.<Long, Double>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(candidatesPerSource)
+                .map(Map.Entry::getKey)
+                .toList();
+        Map<Long, Complaint> byId = new LinkedHashMap<>();
+        complaintRepository.findAll(Specification.where(ComplaintSpecifications.fetchRaisedBy())
+                        .and(ComplaintSpecifications.idIn(ids))
+                        .and(filters))
+                .forEach(c -> byId.put(c.getId(), c));
+        List<Complaint> ranked = new ArrayList<>(byId.values());
+        ranked.sort(Comparator.comparingDouble((Complaint c) -> -fused.get(c.getId())).thenComparing(Complaint::getId));
+        return ranked;
+    }
+
+    // Roughly four characters per token for English text
+    private static int estimateTokens(String text) {
+        return (text.length() + 3) / 4;
+    }
+
+    /**
+     * @param matchingCount exact number of complaints matching the question's filters, set
+     *                      only for counting or "list all" questions
+     */
+    public record Retrieval(List<Complaint> complaints, String context, Long matchingCount) {}
+}
@@ -0,0 +1,55 @@
+package com.hostel.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates the PostgreSQL search structures that Hibernate's ddl-auto cannot express:
+ * a generated tsvector column over the description with a GIN index, and optionally
+ * a pg_trgm index used as the typo-tolerant fallback. All statements are idempotent.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ComplaintSearchIndexInitializer implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ComplaintSearchIndexInitializer.class);
+
+    @Value("${complaints.search.trigram.enabled:true}")
+    private boolean trigramEnabled;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        jdbcTemplate.execute("ALTER TABLE complaints ADD COLUMN IF NOT EXISTS search_vector tsvector " +
+                "GENERATED ALWAYS AS (to_tsvector('english', coalesce(description, ''))) STORED");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_complaints_search_vector " +
+                "ON complaints USING GIN (search_vector)");
+
+        if (!trigramEnabled) {
+            return;
+        }
+        try {
+            jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_complaints_description_trgm " +
+                    "ON complaints USING GIN (description gin_trgm_ops)");
+        } catch (Exception ex) {
+            // Creating extensions may need elevated privileges; full-text search still works without it
+            logger.warn("pg_trgm index not available, fuzzy complaint search disabled: {}", ex.getMessage());
+            trigramEnabled = false;
+        }
+    }
+
+    public boolean isTrigramEnabled() {
+        return trigramEnabled;
+    }
+}
@@ -1,21 +1,35 @@
 package com.hostel.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hostel.dto.ComplaintCursor;
 import com.hostel.dto.ComplaintDTO;
+import com.hostel.dto.ComplaintPageDTO;
 import com.hostel.dto.CreateComplaintRequest;
 import com.hostel.dto.UserDTO;
 import com.hostel.entity.Category;
 import com.hostel.entity.Complaint;
+import com.hostel.entity.ComplaintEndorsement;
 import com.hostel.entity.Status;
 import com.hostel.entity.User;
 import com.hostel.exception.ResourceNotFoundException;
+import com.hostel.repository.ComplaintEndorsementRepository;
 import com.hostel.repository.ComplaintRepository;
+import com.hostel.repository.ComplaintSpecifications;
+import com.hostel.repository.ComplaintTextQuery;
 import com.hostel.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import org.springframework.web.multipart.MultipartFile;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
@@ -26,8 +40,14 @@ import java.util.UUID;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
@@ -36,6 +56,17 @@ import java.nio.charset.StandardCharsets;
 @Service
 public class ComplaintService {
 
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+
+    private static final int NDJSON_FLUSH_EVERY = 100;
+
+    // Page size meaning "no limit"; one below MAX_VALUE so the look-ahead row still fits
+    private static final int UNPAGED = Integer.MAX_VALUE - 1;
+
+    private static final Sort KEYSET_SORT = Sort.by(Sort.Direction.DESC, "createdAt")
+            .and(Sort.by(Sort.Direction.DESC, "id"));
+
     @Autowired
     private ComplaintRepository complaintRepository;
 
@@ -43,13 +74,54 @@ public class ComplaintService {
     private UserRepository userRepository;
 
     @Autowired
-    private ChromaClient chromaClient;
+    private ComplaintIndexQueue indexQueue;
+
+    @Autowired
+    private ComplaintSearchIndexInitializer searchIndexInitializer;
+
+    @Autowired
+    private ComplaintStatsAggregate statsAggregate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private DuplicateComplaintDetector duplicateDetector;
+
+    @Autowired
+    private ComplaintEndorsementRepository endorsementRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
+    /**
+     * Creates a complaint, unless it repeats an open complaint in the same block and category:
+     * then the student is linked to that one as a "me too" and its DTO is returned with
+     * {@code linkedToExisting} set. Submissions with an image are never linked.
+     */
     public ComplaintDTO createComplaint(@NonNull CreateComplaintRequest request, MultipartFile image) {
         Long userId = request.getUserId();
         User user = userRepository.findById(java.util.Objects.requireNonNull(userId, "userId must not be null"))
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
 
+        // Runs before any transaction is open: the lookup may call the embedding API. A submission
+        // with a photo is always filed on its own, since an endorsement has nowhere to keep it.
+        boolean hasImage = image != null && !image.isEmpty();
+        if (!request.isAllowDuplicate() && !hasImage) {
+            Optional<DuplicateComplaintDetector.Match> duplicate = duplicateDetector.findDuplicate(
+                    request.getCategory(), request.getBlock(), request.getDescription());
+            if (duplicate.isPresent()) {
+                ComplaintDTO linked = linkAsMeToo(duplicate.get().complaintId(), user,
+                        request.getRoomNo(), request.getDescription());
+                if (linked != null) {
+                    return linked;
+                }
+            }
+        }
+
         Complaint complaint = new Complaint();
         complaint.setMessageType(request.getMessageType());
         complaint.setCategory(request.getCategory());
@@ -67,7 +139,7 @@ public class ComplaintService {
         complaint.setAssignedTo(resolveAssignee(request.getCategory()));
 
         // Handle optional image upload
-        if (image != null && !image.isEmpty()) {
+        if (hasImage) {
             String imageUrl = storeImage(image);
             complaint.setImageUrl(imageUrl);
         }
@@ -76,17 +148,38 @@ public class ComplaintService {
             complaint.setAvailabilityDate(LocalDate.parse(request.getAvailabilityDate()));
         }
 
-        Complaint saved = complaintRepository.save(complaint);
-
-        try {
-            chromaClient.upsertComplaint(saved);
-        } catch (Exception ex) {
-            // Do not block complaint creation if embedding sync fails
-        }
+        // Indexed asynchronously by ComplaintIndexWorker once the insert commits
+        Complaint saved = indexQueue.saveAndEnqueue(complaint);
+        statsAggregate.onCreated(saved);
 
         return convertToDTO(saved);
     }
 
+    /**
+     * Records {@code user} as also affected by an existing complaint. Returns null when that
+     * complaint was resolved or removed in the meantime, so the caller creates a new one.
+     */
+    public ComplaintDTO linkAsMeToo(Long complaintId, User user, String roomNo, String description) {
+        return transactionTemplate.execute(status -> {
+            Complaint existing = complaintRepository.findById(complaintId).orElse(null);
+            if (existing == null || !DuplicateComplaintDetector.ACTIVE_STATUSES.contains(existing.getStatus())) {
+                return null;
+            }
+            boolean own = existing.getRaisedBy().getId().equals(user.getId());
+            int meToo = existing.getMeTooCount() != null ? existing.getMeTooCount() : 0;
+            if (!own && !endorsementRepository.existsByComplaintIdAndUserId(complaintId, user.getId())) {
+                endorsementRepository.save(new ComplaintEndorsement(complaintId, user.getId(),
+                        roomNo, description));
+                complaintRepository.incrementMeTooCount(complaintId);
+                meToo++;
+            }
+            ComplaintDTO dto = own ? convertToDTO(existing) : convertToSharedDTO(existing);
+            dto.setMeTooCount(meToo);
+            dto.setLinkedToExisting(true);
+            return dto;
+        });
+    }
+
     private String storeImage(MultipartFile image) {
         try {
             Path uploadDir = Paths.get("uploads");
@@ -119,37 +212,117 @@ public class ComplaintService {
                 .collect(Collectors.toList());
     }
 
-    public List<ComplaintDTO> searchComplaints(String query, String agent, LocalDate fromDate,
-                                               LocalDate toDate, Category category, User currentUser, String role) {
-        // Start from allowed complaints based on role
-        List<Complaint> baseList;
-        if ("ADMIN".equals(role)) {
-            baseList = complaintRepository.findAll();
-        } else {
-            baseList = complaintRepository.findByRaisedBy(currentUser);
-        }
+    public ComplaintPageDTO searchComplaints(String query, String agent, LocalDate fromDate, LocalDate toDate,
+                                             Category category, User currentUser, String role,
+                                             String cursor, int size) {
+        return search(query, agent, fromDate, toDate, category, currentUser, role,
+                ComplaintCursor.decode(cursor), clampPageSize(size));
+    }
+
+    /**
+     * Every match in one list, for callers that do not page.
+     */
+    public List<ComplaintDTO> searchAllComplaints(String query, String agent, LocalDate fromDate, LocalDate toDate,
+                                                  Category category, User currentUser, String role) {
+        return search(query, agent, fromDate, toDate, category, currentUser, role, null, UNPAGED).getItems();
+    }
 
-        String q = query != null ? query.toLowerCase() : null;
-        String agentFilter = agent != null ? agent.toLowerCase() : null;
+    private ComplaintPageDTO search(String query, String agent, LocalDate fromDate, LocalDate toDate,
+                                    Category category, User currentUser, String role,
+                                    ComplaintCursor after, int pageSize) {
+        // ADMIN searches everything, CLIENT only their own complaints
+        Long raisedById = "ADMIN".equals(role) ? null : currentUser.getId();
         LocalDateTime from = fromDate != null ? fromDate.atStartOfDay() : null;
         LocalDateTime to = toDate != null ? toDate.plusDays(1).atStartOfDay() : null; // exclusive upper bound
 
-        return baseList.stream()
-                .filter(c -> q == null ||
-                        (c.getDescription() != null && c.getDescription().toLowerCase().contains(q)))
-                .filter(c -> agentFilter == null ||
-                        (c.getAssignedTo() != null && c.getAssignedTo().toLowerCase().contains(agentFilter)))
-                .filter(c -> category == null || c.getCategory() == category)
-                .filter(c -> {
-                    if (from == null && to == null) return true;
-                    LocalDateTime created = c.getCreatedAt();
-                    if (created == null) return false;
-                    boolean afterFrom = from == null || !created.isBefore(from);
-                    boolean beforeTo = to == null || created.isBefore(to);
-                    return afterFrom && beforeTo;
-                })
+        if (query != null && !query.isBlank()) {
+            return textSearch(new ComplaintTextQuery(query, after != null && after.fuzzy(), raisedById, agent,
+                    category, from, to, after != null ? after.rank() : null, after != null ? after.id() : null), pageSize);
+        }
+
+        Specification<Complaint> spec = Specification
+                .where(ComplaintSpecifications.fetchRaisedBy())
+                .and(ComplaintSpecifications.raisedBy(raisedById))
+                .and(ComplaintSpecifications.assignedToContains(agent))
+                .and(ComplaintSpecifications.hasCategory(category))
+                .and(ComplaintSpecifications.createdFrom(from))
+                .and(ComplaintSpecifications.createdBefore(to))
+                .and(ComplaintSpecifications.after(after));
+
+        // Fetch one extra row to learn whether another page exists without a COUNT query
+        List<Complaint> rows = complaintRepository.findBy(spec, q -> q.sortBy(KEYSET_SORT).limit(pageSize + 1).all());
+        return toPage(rows, pageSize);
+    }
+
+    /**
+     * Ranked full-text search. When the first page finds nothing (typically a misspelling
+     * such as "plumbering"), the same filters are retried with trigram similarity.
+     */
+    private ComplaintPageDTO textSearch(ComplaintTextQuery textQuery, int pageSize) {
+        List<Object[]> ranked = complaintRepository.searchRanked(textQuery, pageSize + 1);
+        if (ranked.isEmpty() && textQuery.afterRank() == null && !textQuery.fuzzy()
+                && searchIndexInitializer.isTrigramEnabled()) {
+            textQuery = new ComplaintTextQuery(textQuery.text(), true, textQuery.raisedById(), textQuery.agent(),
+                    textQuery.category(), textQuery.from(), textQuery.to(), null, null);
+            ranked = complaintRepository.searchRanked(textQuery, pageSize + 1);
+        }
+
+        boolean hasMore = ranked.size() > pageSize;
+        List<Object[]> page = hasMore ? ranked.subList(0, pageSize) : ranked;
+        List<Long> ids = page.stream().map(row -> ((Number) row[0]).longValue()).collect(Collectors.toList());
+
+        // Hydrate the page in one statement and restore rank order
+        Map<Long, Complaint> byId = new HashMap<>();
+        if (!ids.isEmpty()) {
+            complaintRepository.findAll(Specification.where(ComplaintSpecifications.fetchRaisedBy())
+                            .and(ComplaintSpecifications.idIn(ids)))
+                    .forEach(c -> byId.put(c.getId(), c));
+        }
+        List<ComplaintDTO> items = ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
+
+        String nextCursor = null;
+        if (hasMore) {
+            Object[] last = page.get(page.size() - 1);
+            nextCursor = ComplaintCursor.byRank(((Number) last[1]).floatValue(), textQuery.fuzzy(),
+                    ((Number) last[0]).longValue()).encode();
+        }
+        return new ComplaintPageDTO(items, nextCursor);
+    }
+
+    /**
+     * Keyset-paged listing: all complaints for ADMIN, own complaints for CLIENT.
+     */
+    public ComplaintPageDTO getComplaintsPage(User user, String role, String cursor, int size) {
+        return searchComplaints(null, null, null, null, null, user, role, cursor, size);
+    }
+
+    /**
+     * Writes complaints as newline-delimited JSON while reading them from a database cursor.
+     * Entities are evicted from the persistence context as they are written, so memory stays
+     * flat regardless of table size.
+     */
+    @Transactional(readOnly = true)
+    public void streamComplaintsNdjson(User user, String role, OutputStream outputStream) throws IOException {
+        try (Stream<Complaint> complaints = "ADMIN".equals(role)
+                ? complaintRepository.streamAll()
+                : complaintRepository.streamByRaisedBy(user)) {
+            Iterator<Complaint> it = complaints.iterator();
+            int written = 0;
+            while (it.hasNext()) {
+                Complaint c = it.next();
+                outputStream.write(objectMapper.writeValueAsBytes(convertToDTO(c)));
+                outputStream.write('\n');
+                entityManager.detach(c);
+                if (++written % NDJSON_FLUSH_EVERY == 0) {
+                    outputStream.flush();
+                }
+            }
+        }
+        outputStream.flush();
     }
 
     public List<ComplaintDTO> getComplaintsByUser(User user) {
@@ -168,9 +341,12 @@ public class ComplaintService {
         Complaint complaint = complaintRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Complaint not found with id: " + id));
         
-        // If CLIENT role, verify they own this complaint
+        // If CLIENT role, verify they own this complaint or were linked to it as a "me too"
         if ("CLIENT".equals(role) && !complaint.getRaisedBy().getId().equals(user.getId())) {
-            throw new RuntimeException("Unauthorized: You can only view your own complaints");
+            if (!endorsementRepository.existsByComplaintIdAndUserId(complaint.getId(), user.getId())) {
+                throw new RuntimeException("Unauthorized: You can only view your own complaints");
+            }
+            return convertToSharedDTO(complaint);
         }
         
         return convertToDTO(complaint);
@@ -179,8 +355,29 @@ public class ComplaintService {
     public ComplaintDTO updateStatus(@NonNull Long id, Status status) {
         Complaint complaint = complaintRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Complaint not found with id: " + id));
+        Status previous = complaint.getStatus();
         complaint.setStatus(status);
-        return convertToDTO(complaintRepository.save(complaint));
+        // Re-indexed so status filters on vector queries stay accurate
+        Complaint saved = indexQueue.saveAndEnqueue(complaint);
+        statsAggregate.onStatusChanged(saved.getCategory(), previous, saved.getStatus());
+        return convertToDTO(saved);
+    }
+
+    private int clampPageSize(int size) {
+        if (size <= 0) return DEFAULT_PAGE_SIZE;
+        return Math.min(size, MAX_PAGE_SIZE);
+    }
+
+    private ComplaintPageDTO toPage(List<Complaint> rows, int pageSize) {
+        boolean hasMore = rows.size() > pageSize;
+        List<Complaint> page = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            Complaint last = page.get(page.size() - 1);
+            nextCursor = ComplaintCursor.byCreatedAt(last.getCreatedAt(), last.getId()).encode();
+        }
+        List<ComplaintDTO> items = page.stream().map(this::convertToDTO).collect(Collectors.toList());
+        return new ComplaintPageDTO(items, nextCursor);
     }
 
     private String resolveAssignee(Category category) {
@@ -222,6 +419,7 @@ public class ComplaintService {
         dto.setStudentName(c.getStudentName());
         dto.setComplaintDate(c.getComplaintDate());
         dto.setType(c.getType());
+        dto.setMeTooCount(c.getMeTooCount() != null ? c.getMeTooCount() : 0);
 
         User u = c.getRaisedBy();
         UserDTO userDTO = new UserDTO();
@@ -233,6 +431,18 @@ public class ComplaintService {
         return dto;
     }
 
+    // What a student linked by "me too" may see: the problem and its progress, not the reporter
+    private ComplaintDTO convertToSharedDTO(Complaint c) {
+        ComplaintDTO dto = convertToDTO(c);
+        dto.setRaisedBy(null);
+        dto.setStudentName(null);
+        dto.setContactNo(null);
+        dto.setPhoneNumber(null);
+        dto.setImageUrl(null);
+        dto.setAttachmentPath(null);
+        return dto;
+    }
+
     /**
      * Streams CSV export row-by-row directly to the OutputStream.
      * Avoids loading the entire CSV into memory (no StringBuilder, no byte[]).
@@ -0,0 +1,168 @@
+package com.hostel.service;
+
+import com.hostel.dto.DashboardStatsDTO;
+import com.hostel.entity.Category;
+import com.hostel.entity.Complaint;
+import com.hostel.entity.PriorityLevel;
+import com.hostel.entity.Status;
+import com.hostel.repository.ComplaintGroupCount;
+import com.hostel.repository.ComplaintRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory complaint counters behind the admin dashboard. Seeded from the database,
+ * kept current by the complaint write paths and periodically reconciled so that any
+ * drift (writes from other nodes, manual SQL, races with a reconcile) heals itself.
+ */
+@Component
+public class ComplaintStatsAggregate {
+
+    private static final Logger logger = LoggerFactory.getLogger(ComplaintStatsAggregate.class);
+
+    // Complaints created without a priority (the manual form does not ask for one)
+    static final String UNSPECIFIED_PRIORITY = "UNSPECIFIED";
+
+    @Autowired
+    private ComplaintRepository complaintRepository;
+
+    private final LongAdder total = new LongAdder();
+    private final LongAdder[][] byStatusCategory = new LongAdder[Status.values().length][Category.values().length];
+    private final LongAdder[] byPriority = new LongAdder[PriorityLevel.values().length + 1];
+
+    private final ReentrantLock reconcileLock = new ReentrantLock();
+
+    private volatile boolean seeded;
+
+    public ComplaintStatsAggregate() {
+        for (LongAdder[] row : byStatusCategory) {
+            for (int i = 0; i < row.length; i++) {
+                row[i] = new LongAdder();
+            }
+        }
+        for (int i = 0; i < byPriority.length; i++) {
+            byPriority[i] = new LongAdder();
+        }
+    }
+
+    public void onCreated(Complaint complaint) {
+        if (complaint == null) return;
+        total.increment();
+        if (complaint.getStatus() != null && complaint.getCategory() != null) {
+            cell(complaint.getStatus(), complaint.getCategory()).increment();
+        }
+        byPriority[priorityIndex(complaint.getPriorityLevel())].increment();
+    }
+
+    public void onStatusChanged(Category category, Status previous, Status current) {
+        if (category == null || previous == current) return;
+        if (previous != null) cell(previous, category).decrement();
+        if (current != null) cell(current, category).increment();
+    }
+
+    public DashboardStatsDTO snapshot() {
+        if (!seeded) {
+            reconcile();
+        }
+        Map<String, Map<String, Long>> matrix = new LinkedHashMap<>();
+        Map<Status, Long> statusTotals = new EnumMap<>(Status.class);
+        Map<String, Long> categoryCounts = new HashMap<>();
+        for (Status status : Status.values()) {
+            Map<String, Long> row = new LinkedHashMap<>();
+            long statusTotal = 0;
+            for (Category category : Category.values()) {
+                long value = cell(status, category).sum();
+                row.put(category.toString(), value);
+                statusTotal += value;
+                if (value > 0) {
+                    categoryCounts.merge(category.toString(), value, Long::sum);
+                }
+            }
+            matrix.put(status.toString(), row);
+            statusTotals.put(status, statusTotal);
+        }
+
+        Map<String, Long> priorityCounts = new LinkedHashMap<>();
+        for (PriorityLevel level : PriorityLevel.values()) {
+            priorityCounts.put(level.toString(), byPriority[level.ordinal()].sum());
+        }
+        priorityCounts.put(UNSPECIFIED_PRIORITY, byPriority[priorityIndex(null)].sum());
+
+        return new DashboardStatsDTO(
+                total.sum(),
+                statusTotals.get(Status.OPEN),
+                statusTotals.get(Status.IN_PROGRESS),
+                statusTotals.get(Status.RESOLVED),
+                categoryCounts,
+                matrix,
+                priorityCounts);
+    }
+
+    /**
+     * Replaces the counters with database totals from a single grouped query.
+     * Runs at startup and then on a fixed delay.
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${dashboard.stats.reconcileMs:300000}")
+    public void reconcile() {
+        // A lock rather than synchronized: the query below must not pin a virtual thread's carrier
+        reconcileLock.lock();
+        try {
+            List<ComplaintGroupCount> rows = complaintRepository.countGrouped();
+
+            long dbTotal = 0;
+            long[][] matrix = new long[Status.values().length][Category.values().length];
+            long[] priorities = new long[byPriority.length];
+            for (ComplaintGroupCount row : rows) {
+                long count = row.getCount();
+                switch (row.getGroupingId()) {
+                    case ComplaintGroupCount.STATUS_CATEGORY ->
+                            matrix[Status.valueOf(row.getStatus()).ordinal()][Category.valueOf(row.getCategory()).ordinal()] = count;
+                    case ComplaintGroupCount.PRIORITY ->
+                            priorities[priorityIndex(row.getPriorityLevel() != null ? PriorityLevel.valueOf(row.getPriorityLevel()) : null)] = count;
+                    case ComplaintGroupCount.GRAND_TOTAL -> dbTotal = count;
+                    default -> { }
+                }
+            }
+
+            reset(total, dbTotal);
+            for (int s = 0; s < matrix.length; s++) {
+                for (int c = 0; c < matrix[s].length; c++) {
+                    reset(byStatusCategory[s][c], matrix[s][c]);
+                }
+            }
+            for (int p = 0; p < priorities.length; p++) {
+                reset(byPriority[p], priorities[p]);
+            }
+            seeded = true;
+        } catch (Exception ex) {
+            logger.warn("Dashboard stats reconcile failed: {}", ex.getMessage());
+        } finally {
+            reconcileLock.unlock();
+        }
+    }
+
+    private LongAdder cell(Status status, Category category) {
+        return byStatusCategory[status.ordinal()][category.ordinal()];
+    }
+
+    // Last slot holds complaints without a priority
+    private int priorityIndex(PriorityLevel level) {
+        return level != null ? level.ordinal() : PriorityLevel.values().length;
+    }
+
+    // Not atomic with concurrent increments; a racing write is corrected by the next reconcile
+    private static void reset(LongAdder counter, long value) {
+        counter.add(value - counter.sum());
+    }
+}
@@ -0,0 +1,94 @@
+package com.hostel.service;
+
+import com.hostel.entity.Category;
+import com.hostel.entity.PriorityLevel;
+import com.hostel.entity.Status;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Builds the {@code where} map for complaint vector queries and names the metadata keys
+ * {@link ChromaClient} writes, so filters and indexed records cannot drift apart. Unset
+ * criteria do not constrain the search.
+ */
+public final class ComplaintVectorFilter {
+
+    static final String CATEGORY = "category";
+    static final String STATUS = "status";
+    static final String BLOCK = "block";
+    static final String PRIORITY = "priority";
+    static final String CREATED_AT = "createdAt";
+    static final String RAISED_BY = "raisedBy";
+
+    private final Map<String, Object> where = new LinkedHashMap<>();
+
+    public static ComplaintVectorFilter any() {
+        return new ComplaintVectorFilter();
+    }
+
+    public ComplaintVectorFilter category(Category category) {
+        return put(CATEGORY, category != null ? category.name() : null);
+    }
+
+    public ComplaintVectorFilter categoryIn(Collection<Category> categories) {
+        return put(CATEGORY, categories != null && !categories.isEmpty()
+                ? categories.stream().map(Category::name).toList() : null);
+    }
+
+    public ComplaintVectorFilter status(Status status) {
+        return put(STATUS, status != null ? status.name() : null);
+    }
+
+    public ComplaintVectorFilter statusIn(Collection<Status> statuses) {
+        return put(STATUS, statuses != null && !statuses.isEmpty()
+                ? statuses.stream().map(Status::name).toList() : null);
+    }
+
+    public ComplaintVectorFilter block(String block) {
+        return put(BLOCK, blockValue(block));
+    }
+
+    public ComplaintVectorFilter priority(PriorityLevel priority) {
+        return put(PRIORITY, priority != null ? priority.name() : null);
+    }
+
+    public ComplaintVectorFilter raisedBy(Long userId) {
+        return put(RAISED_BY, userId);
+    }
+
+    public ComplaintVectorFilter createdBetween(LocalDateTime from, LocalDateTime to) {
+        if (from == null && to == null) {
+            return put(CREATED_AT, null);
+        }
+        return put(CREATED_AT, new VectorStore.Range(from != null ? epochSeconds(from) : null,
+                to != null ? epochSeconds(to) : null));
+    }
+
+    public Map<String, Object> toWhere() {
+        return Map.copyOf(where);
+    }
+
+    // Blocks are typed by students ("B", "b ", "Block-B" stays distinct); match case- and space-insensitively
+    static String blockValue(String block) {
+        return block == null || block.isBlank() ? null : block.trim().toLowerCase(Locale.ROOT);
+    }
+
+    static long epochSeconds(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toEpochSecond();
+    }
+
+    private ComplaintVectorFilter put(String key, Object value) {
+        if (value == null) {
+            where.remove(key);
+        } else {
+            where.put(key, value instanceof List<?> list ? List.copyOf(list) : value);
+        }
+        return this;
+    }
+}
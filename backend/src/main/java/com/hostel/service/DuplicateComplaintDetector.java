@@ -0,0 +1,157 @@
+package com.hostel.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hostel.dto.EmbeddingVector;
+import com.hostel.entity.Category;
+import com.hostel.entity.Complaint;
+import com.hostel.entity.Status;
+import com.hostel.repository.ComplaintRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Finds an open complaint that a new submission most likely repeats: same category, same
+ * block, cosine distance under {@code complaint.duplicate.maxDistance}. Candidate vectors for
+ * each (category, block) are held in a bounded in-heap cache, filled from the database and the
+ * embedding cache without calling the embedding API, so a lookup costs one embedding of the new
+ * text plus a scan of at most {@code complaint.duplicate.candidatesPerBlock} vectors.
+ */
+@Service
+public class DuplicateComplaintDetector {
+
+    private static final Logger logger = LoggerFactory.getLogger(DuplicateComplaintDetector.class);
+
+    static final Set<Status> ACTIVE_STATUSES = EnumSet.of(Status.OPEN, Status.IN_PROGRESS);
+
+    @Autowired
+    private ComplaintRepository complaintRepository;
+
+    @Autowired
+    private ChromaClient chromaClient;
+
+    @Value("${complaint.duplicate.enabled:true}")
+    private boolean enabled;
+
+    @Value("${complaint.duplicate.maxDistance:0.1}")
+    private double maxDistance;
+
+    @Value("${complaint.duplicate.candidatesPerBlock:200}")
+    private int candidatesPerBlock;
+
+    private final Cache<BlockKey, List<Candidate>> candidates;
+    private final Timer lookupTimer;
+    private final Counter linked;
+    private final Counter distinct;
+
+    public DuplicateComplaintDetector(MeterRegistry meterRegistry,
+                                      @Value("${complaint.duplicate.cachedBlocks:500}") long cachedBlocks,
+                                      @Value("${complaint.duplicate.cacheTtlSeconds:600}") long cacheTtlSeconds) {
+        this.candidates = Caffeine.newBuilder()
+                .maximumSize(cachedBlocks)
+                .expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+                .build();
+        this.lookupTimer = Timer.builder("complaint.duplicate.lookup")
+                .description("Near-duplicate lookup for a new complaint")
+                .register(meterRegistry);
+        this.linked = Counter.builder("complaint.duplicate").tag("outcome", "duplicate").register(meterRegistry);
+        this.distinct = Counter.builder("complaint.duplicate").tag("outcome", "distinct").register(meterRegistry);
+    }
+
+    /**
+     * @return the closest active complaint within the distance threshold, or empty when there is
+     * none or the lookup could not run (no block, no embedding, store disabled)
+     */
+    public Optional<Match> findDuplicate(Category category, String block, String description) {
+        BlockKey key = BlockKey.of(category, block);
+        if (!enabled || key == null || description == null || description.isBlank() || !chromaClient.isEnabled()) {
+            return Optional.empty();
+        }
+        long started = System.nanoTime();
+        try {
+            EmbeddingVector embedding = chromaClient.embedDescription(description);
+            if (embedding.isEmpty()) {
+                return Optional.empty();
+            }
+            float[] query = EmbeddingVector.normalize(embedding.values());
+
+            Candidate best = null;
+            float bestSimilarity = -1f;
+            for (Candidate candidate : candidates.get(key, this::load)) {
+                if (candidate.unit().length != query.length) {
+                    continue;
+                }
+                float similarity = EmbeddingVector.dot(query, candidate.unit());
+                if (similarity > bestSimilarity) {
+                    bestSimilarity = similarity;
+                    best = candidate;
+                }
+            }
+            double distance = Math.max(0.0, 1.0 - bestSimilarity);
+            if (best == null || distance > maxDistance) {
+                distinct.increment();
+                return Optional.empty();
+            }
+            linked.increment();
+            return Optional.of(new Match(best.complaintId(), distance));
+        } catch (Exception ex) {
+            logger.warn("Duplicate lookup failed, treating complaint as new: {}", ex.getMessage());
+            return Optional.empty();
+        } finally {
+            lookupTimer.record(Duration.ofNanos(System.nanoTime() - started));
+        }
+    }
+
+    /**
+     * Drops the cached candidates of the complaint's block so the next lookup sees a new,
+     * resolved or re-categorised complaint.
+     */
+    public void onComplaintChanged(Complaint complaint) {
+        BlockKey key = BlockKey.of(complaint.getCategory(), complaint.getBlock());
+        if (key != null) {
+            candidates.invalidate(key);
+        }
+    }
+
+    // Complaints not embedded yet (still in the index outbox) are simply not candidates
+    private List<Candidate> load(BlockKey key) {
+        List<Complaint> active = complaintRepository.findActiveInBlock(key.category(), key.block(),
+                ACTIVE_STATUSES, PageRequest.of(0, candidatesPerBlock));
+        List<EmbeddingVector> vectors = chromaClient.cachedEmbeddings(active);
+        List<Candidate> loaded = new ArrayList<>(active.size());
+        for (int i = 0; i < active.size(); i++) {
+            if (!vectors.get(i).isEmpty()) {
+                loaded.add(new Candidate(active.get(i).getId(), EmbeddingVector.normalize(vectors.get(i).values())));
+            }
+        }
+        return List.copyOf(loaded);
+    }
+
+    public record Match(Long complaintId, double distance) {}
+
+    private record Candidate(Long complaintId, float[] unit) {}
+
+    private record BlockKey(Category category, String block) {
+        static BlockKey of(Category category, String block) {
+            if (category == null || block == null || block.isBlank()) {
+                return null;
+            }
+            return new BlockKey(category, block.trim().toLowerCase(Locale.ROOT));
+        }
+    }
+}
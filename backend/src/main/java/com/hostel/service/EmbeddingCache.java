@@ -0,0 +1,128 @@
+package com.hostel.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hostel.entity.EmbeddingCacheEntry;
+import com.hostel.repository.EmbeddingCacheRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Two-tier, content-addressed cache of embedding vectors keyed by (model, SHA-256 of text):
+ * a bounded in-heap LRU in front of the {@code embedding_cache} table. Persistence failures
+ * are logged and otherwise ignored; the cache never makes embedding fail.
+ */
+@Service
+public class EmbeddingCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmbeddingCache.class);
+
+    @Autowired
+    private EmbeddingCacheRepository repository;
+
+    @Value("${embedding.cache.maxEntries:50000}")
+    private long maxEntries;
+
+    @Value("${embedding.cache.persistent:true}")
+    private boolean persistent;
+
+    private Cache<String, float[]> memory;
+
+    @PostConstruct
+    public void init() {
+        memory = Caffeine.newBuilder().maximumSize(maxEntries).build();
+    }
+
+    public static String contentHash(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+
+    public float[] get(String model, String hash) {
+        return getAll(model, List.of(hash)).get(hash);
+    }
+
+    /**
+     * Returns the cached vectors for the given hashes; missing hashes are absent from the map.
+     * Entries found only in the database are promoted to the in-heap tier.
+     */
+    public Map<String, float[]> getAll(String model, Collection<String> hashes) {
+        Map<String, float[]> found = new HashMap<>();
+        List<String> misses = new ArrayList<>();
+        for (String hash : hashes) {
+            float[] vector = memory.getIfPresent(memoryKey(model, hash));
+            if (vector != null) {
+                found.put(hash, vector);
+            } else {
+                misses.add(hash);
+            }
+        }
+        if (misses.isEmpty() || !persistent) {
+            return found;
+        }
+
+        try {
+            for (EmbeddingCacheEntry entry : repository.findByModelAndHashes(model, misses)) {
+                float[] vector = unpack(entry.getVector());
+                String hash = entry.getId().getContentHash();
+                memory.put(memoryKey(model, hash), vector);
+                found.put(hash, vector);
+            }
+        } catch (Exception ex) {
+            logger.warn("Embedding cache lookup failed: {}", ex.getMessage());
+        }
+        return found;
+    }
+
+    public void put(String model, String hash, float[] vector) {
+        if (vector == null || vector.length == 0) {
+            return;
+        }
+        memory.put(memoryKey(model, hash), vector);
+        if (!persistent) {
+            return;
+        }
+        try {
+            repository.insertIfAbsent(model, hash, pack(vector), vector.length, LocalDateTime.now());
+        } catch (Exception ex) {
+            logger.warn("Embedding cache write failed: {}", ex.getMessage());
+        }
+    }
+
+    static byte[] pack(float[] vector) {
+        ByteBuffer buffer = ByteBuffer.allocate(vector.length * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.asFloatBuffer().put(vector);
+        return buffer.array();
+    }
+
+    static float[] unpack(byte[] bytes) {
+        float[] vector = new float[bytes.length / Float.BYTES];
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer().get(vector);
+        return vector;
+    }
+
+    private static String memoryKey(String model, String hash) {
+        return model + '\0' + hash;
+    }
+}
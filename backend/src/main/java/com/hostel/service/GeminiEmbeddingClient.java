@@ -1,12 +1,21 @@
 package com.hostel.service;
 
-import java.util.Collections;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.hostel.config.BoundedExecutorFactory;
+import com.hostel.dto.EmbeddingVector;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
@@ -16,6 +25,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 
 @Service
 public class GeminiEmbeddingClient {
@@ -31,7 +41,28 @@ public class GeminiEmbeddingClient {
     @Value("${gemini.embed.model:embedding-001}")
     private String model;
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    // Derived from gemini.embed.api.url (":embedContent" -> ":batchEmbedContents") when blank
+    @Value("${gemini.embed.batch.api.url:}")
+    private String batchApiUrl;
+
+    // Gemini accepts at most 100 requests per batchEmbedContents call
+    @Value("${gemini.embed.batchSize:100}")
+    private int batchSize;
+
+    @Value("${gemini.embed.maxConcurrency:4}")
+    private int maxConcurrency;
+
+    @Autowired
+    private EmbeddingCache embeddingCache;
+
+    @Autowired
+    @Qualifier("geminiRestTemplate")
+    private RestTemplate restTemplate;
+
+    @Autowired
+    private BoundedExecutorFactory executorFactory;
+
+    private Executor batchExecutor;
 
     @PostConstruct
     public void validateConfiguration() {
@@ -44,17 +75,46 @@ public class GeminiEmbeddingClient {
         if (apiUrl == null || apiUrl.isBlank()) {
             throw new IllegalStateException("Gemini Embedding API URL not configured. Set gemini.embed.api.url in application.properties.");
         }
+        if (batchApiUrl == null || batchApiUrl.isBlank()) {
+            batchApiUrl = apiUrl.replace(":embedContent", ":batchEmbedContents");
+        }
+        batchSize = Math.max(1, Math.min(batchSize, 100));
+        batchExecutor = executorFactory.create("gemini-embed-", maxConcurrency);
         logger.info("GeminiEmbeddingClient initialized successfully with model: {}", model);
     }
 
-    public List<Double> embed(String text) {
+    @PreDestroy
+    public void shutdown() {
+        if (batchExecutor != null) {
+            BoundedExecutorFactory.shutdown(batchExecutor);
+        }
+    }
+
+    public String getModel() {
+        return model;
+    }
+
+    public EmbeddingVector embed(String text) {
         if (text == null || text.isBlank()) {
-            return Collections.emptyList();
+            return EmbeddingVector.empty();
         }
         if (apiUrl == null || apiUrl.isBlank() || apiKey == null || apiKey.isBlank()) {
-            return Collections.emptyList();
+            return EmbeddingVector.empty();
+        }
+
+        String hash = EmbeddingCache.contentHash(text);
+        float[] cached = embeddingCache.get(model, hash);
+        if (cached != null) {
+            return EmbeddingVector.of(cached);
+        }
+        EmbeddingVector embedding = requestEmbedding(text);
+        if (!embedding.isEmpty()) {
+            embeddingCache.put(model, hash, embedding.values());
         }
+        return embedding;
+    }
 
+    private EmbeddingVector requestEmbedding(String text) {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
 
@@ -72,44 +132,167 @@ public class GeminiEmbeddingClient {
         String urlWithKey = apiUrl + (apiUrl.contains("?") ? "&" : "?") + "key=" + apiKey;
 
         try {
-            ResponseEntity<Map> responseEntity = restTemplate.postForEntity(urlWithKey, entity, Map.class);
-            
+            ResponseEntity<EmbedResponse> responseEntity = restTemplate.postForEntity(urlWithKey, entity, EmbedResponse.class);
+
             if (!responseEntity.getStatusCode().is2xxSuccessful()) {
                 logger.error("Gemini Embedding API returned non-200 status: {}", responseEntity.getStatusCode());
-                return Collections.emptyList();
+                return EmbeddingVector.empty();
             }
-            
-            Map<String, Object> response = responseEntity.getBody();
+
+            EmbedResponse response = responseEntity.getBody();
             if (response == null) {
                 logger.warn("No response from Gemini Embedding API");
-                return Collections.emptyList();
+                return EmbeddingVector.empty();
             }
-            
+
             // Check for error in response
-            if (response.containsKey("error")) {
-                Object errorObj = response.get("error");
-                if (errorObj instanceof Map<?, ?> errorMap) {
-                    Object messageObj = errorMap.get("message");
-                    logger.error("Gemini Embedding API error: {}", messageObj != null ? messageObj : errorObj);
-                }
-                return Collections.emptyList();
+            if (response.error() != null) {
+                Object messageObj = response.error().get("message");
+                logger.error("Gemini Embedding API error: {}", messageObj != null ? messageObj : response.error());
+                return EmbeddingVector.empty();
             }
-            
-            Object embeddingObj = response.get("embedding");
-            if (embeddingObj instanceof Map<?, ?> embeddingMap) {
-                Object valuesObj = embeddingMap.get("values");
-                if (valuesObj instanceof List<?> values) {
-                    return values.stream()
-                            .filter(v -> v instanceof Number)
-                            .map(v -> ((Number) v).doubleValue())
-                            .toList();
-                }
+
+            if (response.embedding() != null && response.embedding().values() != null) {
+                return response.embedding().values();
             }
         } catch (Exception ex) {
             logger.error("Error calling Gemini Embedding API", ex);
-            return Collections.emptyList();
+            return EmbeddingVector.empty();
+        }
+
+        return EmbeddingVector.empty();
+    }
+
+    /**
+     * Embeds many texts via batchEmbedContents. Texts are split into chunks of
+     * {@code gemini.embed.batchSize}, and at most {@code gemini.embed.maxConcurrency} chunks are
+     * in flight at once across all callers. Texts already in the {@link EmbeddingCache} are
+     * not sent at all. The result is aligned with {@code texts}; blank entries map to an empty
+     * vector. Unlike {@link #embed(String)}, API failures are thrown so bulk callers can retry
+     * the whole batch.
+     */
+    public List<EmbeddingVector> embedBatch(List<String> texts) {
+        if (texts == null || texts.isEmpty()) {
+            return List.of();
+        }
+
+        // Distinct non-blank texts by content hash; duplicates within the batch are embedded once
+        String[] hashes = new String[texts.size()];
+        Map<String, String> textByHash = new LinkedHashMap<>();
+        for (int i = 0; i < texts.size(); i++) {
+            String text = texts.get(i);
+            if (text != null && !text.isBlank()) {
+                hashes[i] = EmbeddingCache.contentHash(text);
+                textByHash.putIfAbsent(hashes[i], text);
+            }
+        }
+
+        Map<String, EmbeddingVector> vectorsByHash = new HashMap<>();
+        embeddingCache.getAll(model, textByHash.keySet()).forEach((hash, values) -> vectorsByHash.put(hash, EmbeddingVector.of(values)));
+        List<String> missingHashes = new ArrayList<>();
+        for (String hash : textByHash.keySet()) {
+            if (!vectorsByHash.containsKey(hash)) {
+                missingHashes.add(hash);
+            }
+        }
+
+        List<CompletableFuture<List<EmbeddingVector>>> chunks = new ArrayList<>();
+        for (int start = 0; start < missingHashes.size(); start += batchSize) {
+            List<String> chunk = missingHashes.subList(start, Math.min(start + batchSize, missingHashes.size())).stream()
+                    .map(textByHash::get)
+                    .toList();
+            chunks.add(CompletableFuture.supplyAsync(() -> requestBatch(chunk), batchExecutor));
+        }
+
+        int next = 0;
+        try {
+            for (CompletableFuture<List<EmbeddingVector>> chunk : chunks) {
+                for (EmbeddingVector vector : chunk.join()) {
+                    String hash = missingHashes.get(next++);
+                    vectorsByHash.put(hash, vector);
+                    embeddingCache.put(model, hash, vector.values());
+                }
+            }
+        } catch (CompletionException ex) {
+            chunks.forEach(chunk -> chunk.cancel(true));
+            Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+            throw cause instanceof RuntimeException runtime ? runtime : new IllegalStateException(cause);
+        }
+
+        List<EmbeddingVector> vectors = new ArrayList<>(texts.size());
+        for (String hash : hashes) {
+            vectors.add(hash != null ? vectorsByHash.get(hash) : EmbeddingVector.empty());
+        }
+        return vectors;
+    }
+
+    /**
+     * Looks texts up in the {@link EmbeddingCache} only, never calling the API. The result is
+     * aligned with {@code texts}; uncached or blank entries map to an empty vector.
+     */
+    public List<EmbeddingVector> cachedEmbeddings(List<String> texts) {
+        String[] hashes = new String[texts.size()];
+        List<String> lookup = new ArrayList<>(texts.size());
+        for (int i = 0; i < texts.size(); i++) {
+            String text = texts.get(i);
+            if (text != null && !text.isBlank()) {
+                hashes[i] = EmbeddingCache.contentHash(text);
+                lookup.add(hashes[i]);
+            }
+        }
+        Map<String, float[]> cached = embeddingCache.getAll(model, lookup);
+        List<EmbeddingVector> vectors = new ArrayList<>(texts.size());
+        for (String hash : hashes) {
+            vectors.add(hash != null ? EmbeddingVector.of(cached.get(hash)) : EmbeddingVector.empty());
+        }
+        return vectors;
+    }
+
+    private List<EmbeddingVector> requestBatch(List<String> texts) {
+        String qualifiedModel = model.startsWith("models/") ? model : "models/" + model;
+        List<Map<String, Object>> requests = new ArrayList<>(texts.size());
+        for (String text : texts) {
+            Map<String, Object> part = new HashMap<>();
+            part.put("text", text);
+            Map<String, Object> content = new HashMap<>();
+            content.put("parts", List.of(part));
+            Map<String, Object> request = new HashMap<>();
+            request.put("model", qualifiedModel);
+            request.put("content", content);
+            requests.add(request);
         }
 
-        return Collections.emptyList();
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        HttpEntity<Map<String, Object>> entity = new HttpEntity<>(Map.of("requests", requests), headers);
+        String urlWithKey = batchApiUrl + (batchApiUrl.contains("?") ? "&" : "?") + "key=" + apiKey;
+
+        BatchEmbedResponse response = restTemplate.postForObject(urlWithKey, entity, BatchEmbedResponse.class);
+        if (response == null || response.embeddings() == null) {
+            throw new IllegalStateException("Gemini batch embedding returned no embeddings");
+        }
+        if (response.embeddings().size() != texts.size()) {
+            throw new IllegalStateException("Gemini batch embedding returned " + response.embeddings().size()
+                    + " vectors for " + texts.size() + " texts");
+        }
+
+        List<EmbeddingVector> vectors = new ArrayList<>(texts.size());
+        for (ContentEmbedding embedding : response.embeddings()) {
+            if (embedding == null || embedding.values() == null || embedding.values().isEmpty()) {
+                throw new IllegalStateException("Gemini batch embedding returned an empty vector");
+            }
+            vectors.add(embedding.values());
+        }
+        return vectors;
     }
+
+    // Response shapes of embedContent / batchEmbedContents; values bind straight to float[]
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record ContentEmbedding(EmbeddingVector values) {}
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record EmbedResponse(ContentEmbedding embedding, Map<String, Object> error) {}
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record BatchEmbedResponse(List<ContentEmbedding> embeddings) {}
 }
@@ -0,0 +1,145 @@
+package com.hostel.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Answer cache for {@link RagLlmClient}, keyed by (system prompt hash, normalised question,
+ * context hash). Entries hold the in-flight future, so concurrent identical questions share
+ * one upstream call; failed calls are dropped rather than cached. Each entry remembers the
+ * complaint ids its context was built from and is evicted when any of them changes.
+ */
+@Service
+public class LlmAnswerCache {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern TRAILING_PUNCTUATION = Pattern.compile("[\\s?.!]+$");
+
+    private final AsyncCache<String, String> answers;
+    private final Map<String, Collection<Long>> sourcesByKey = new ConcurrentHashMap<>();
+    private final Map<Long, Set<String>> keysByComplaint = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter coalesced;
+
+    public LlmAnswerCache(MeterRegistry meterRegistry,
+                          @Value("${llm.answerCache.ttlSeconds:600}") long ttlSeconds,
+                          @Value("${llm.answerCache.maxEntries:2000}") long maxEntries) {
+        this.answers = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .maximumSize(maxEntries)
+                .removalListener((String key, String answer, RemovalCause cause) -> unregister(key))
+                .buildAsync();
+        this.hits = Counter.builder("llm.answer.cache").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("llm.answer.cache").tag("result", "miss").register(meterRegistry);
+        this.coalesced = Counter.builder("llm.answer.cache").tag("result", "coalesced").register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached or in-flight answer for this prompt, question and context, or runs
+     * {@code upstream} on the calling thread and shares its result.
+     */
+    public String get(String systemPrompt, String question, String context, Collection<Long> sourceIds,
+                      Supplier<String> upstream) {
+        String key = key(systemPrompt, question, context);
+        CompletableFuture<String> mine = new CompletableFuture<>();
+        CompletableFuture<String> existing = answers.asMap().putIfAbsent(key, mine);
+        if (existing != null) {
+            (existing.isDone() ? hits : coalesced).increment();
+            try {
+                return existing.join();
+            } catch (CompletionException ex) {
+                throw ex.getCause() instanceof RuntimeException runtime ? runtime : ex;
+            }
+        }
+
+        misses.increment();
+        register(key, sourceIds);
+        try {
+            String answer = upstream.get();
+            mine.complete(answer);
+            return answer;
+        } catch (RuntimeException ex) {
+            mine.completeExceptionally(ex);
+            answers.asMap().remove(key, mine);
+            throw ex;
+        }
+    }
+
+    /**
+     * Drops every cached answer whose context included the given complaint.
+     */
+    public void invalidateComplaint(Long complaintId) {
+        if (complaintId == null) {
+            return;
+        }
+        Set<String> keys = keysByComplaint.remove(complaintId);
+        if (keys != null) {
+            answers.synchronous().invalidateAll(keys);
+        }
+    }
+
+    static String normalizeQuestion(String question) {
+        if (question == null) {
+            return "";
+        }
+        String collapsed = WHITESPACE.matcher(question.trim().toLowerCase(Locale.ROOT)).replaceAll(" ");
+        return TRAILING_PUNCTUATION.matcher(collapsed).replaceAll("");
+    }
+
+    private String key(String systemPrompt, String question, String context) {
+        return sha256(systemPrompt) + ':' + sha256(context) + ':' + normalizeQuestion(question);
+    }
+
+    private void register(String key, Collection<Long> sourceIds) {
+        List<Long> ids = sourceIds == null ? List.of() : List.copyOf(sourceIds);
+        sourcesByKey.put(key, ids);
+        for (Long id : ids) {
+            keysByComplaint.computeIfAbsent(id, ignored -> ConcurrentHashMap.newKeySet()).add(key);
+        }
+    }
+
+    private void unregister(String key) {
+        Collection<Long> ids = sourcesByKey.remove(key);
+        if (ids == null) {
+            return;
+        }
+        for (Long id : ids) {
+            keysByComplaint.computeIfPresent(id, (ignored, keys) -> {
+                keys.remove(key);
+                return keys.isEmpty() ? null : keys;
+            });
+        }
+    }
+
+    private static String sha256(String text) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest((text == null ? "" : text).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+}
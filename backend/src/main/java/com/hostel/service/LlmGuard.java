@@ -0,0 +1,266 @@
+package com.hostel.service;
+
+import com.hostel.config.PerHostConcurrencyLimiter;
+import com.hostel.exception.LlmUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Protects the application from a slow or failing LLM upstream. Every call passes through:
+ * <ul>
+ *   <li>a circuit breaker: after {@code failureThreshold} consecutive upstream failures calls
+ *       fail fast for {@code openSeconds}, then a single trial call decides whether to close;</li>
+ *   <li>a bulkhead whose size is an AIMD limit: +1/limit per call that finishes under
+ *       {@code latencyTargetMs}, x{@code backoffRatio} on a slow call or failure;</li>
+ *   <li>a bounded wait queue: callers wait up to {@code queueTimeoutMs} for a slot and are
+ *       rejected straight away once {@code maxQueue} are already waiting.</li>
+ * </ul>
+ * Rejections surface as {@link LlmUnavailableException} (HTTP 503 with Retry-After). Only
+ * genuine upstream trouble counts as a failure; see {@link #isUpstreamFailure(Throwable)}.
+ */
+@Component
+public class LlmGuard {
+
+    private static final Logger logger = LoggerFactory.getLogger(LlmGuard.class);
+
+    private enum CircuitState { CLOSED, HALF_OPEN, OPEN }
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyTargetNanos;
+    private final double backoffRatio;
+    private final int maxQueue;
+    private final long queueTimeoutMs;
+    private final int failureThreshold;
+    private final long openNanos;
+    private final long retryAfterSeconds;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition slotFreed = lock.newCondition();
+    private double limit;
+    private int inFlight;
+    private int queued;
+    private CircuitState state = CircuitState.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    private final Counter rejectedQueueFull;
+    private final Counter rejectedQueueTimeout;
+    private final Counter rejectedCircuitOpen;
+    private final Timer latency;
+
+    public LlmGuard(MeterRegistry meterRegistry,
+                    @Value("${llm.guard.initialLimit:8}") int initialLimit,
+                    @Value("${llm.guard.minLimit:2}") int minLimit,
+                    @Value("${llm.guard.maxLimit:32}") int maxLimit,
+                    @Value("${llm.guard.latencyTargetMs:8000}") long latencyTargetMs,
+                    @Value("${llm.guard.backoffRatio:0.8}") double backoffRatio,
+                    @Value("${llm.guard.maxQueue:20}") int maxQueue,
+                    @Value("${llm.guard.queueTimeoutMs:2000}") long queueTimeoutMs,
+                    @Value("${llm.guard.failureThreshold:5}") int failureThreshold,
+                    @Value("${llm.guard.openSeconds:30}") long openSeconds,
+                    @Value("${llm.guard.retryAfterSeconds:5}") long retryAfterSeconds) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+        this.latencyTargetNanos = TimeUnit.MILLISECONDS.toNanos(latencyTargetMs);
+        this.backoffRatio = backoffRatio;
+        this.maxQueue = maxQueue;
+        this.queueTimeoutMs = queueTimeoutMs;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openNanos = TimeUnit.SECONDS.toNanos(openSeconds);
+        this.retryAfterSeconds = retryAfterSeconds;
+
+        Gauge.builder("llm.guard.limit", this, guard -> guard.read(() -> guard.limit)).register(meterRegistry);
+        Gauge.builder("llm.guard.inflight", this, guard -> guard.read(() -> (double) guard.inFlight)).register(meterRegistry);
+        Gauge.builder("llm.guard.queued", this, guard -> guard.read(() -> (double) guard.queued)).register(meterRegistry);
+        Gauge.builder("llm.guard.circuit.state", this, guard -> guard.read(() -> (double) guard.state.ordinal()))
+                .description("0 = closed, 1 = half-open, 2 = open")
+                .register(meterRegistry);
+        this.rejectedQueueFull = Counter.builder("llm.guard.rejected").tag("reason", "queue_full").register(meterRegistry);
+        this.rejectedQueueTimeout = Counter.builder("llm.guard.rejected").tag("reason", "queue_timeout").register(meterRegistry);
+        this.rejectedCircuitOpen = Counter.builder("llm.guard.rejected").tag("reason", "circuit_open").register(meterRegistry);
+        this.latency = Timer.builder("llm.guard.latency").register(meterRegistry);
+    }
+
+    /**
+     * Runs {@code call} under the breaker and bulkhead.
+     *
+     * @param latencySignal whether the call's duration should drive the adaptive limit; off for
+     *                      streamed answers, whose duration tracks answer length, not load
+     */
+    public <T> T call(Supplier<T> call, boolean latencySignal) {
+        boolean trial = acquire();
+        long started = System.nanoTime();
+        boolean success = false;
+        boolean upstreamFailure = false;
+        try {
+            T result = call.get();
+            success = true;
+            return result;
+        } catch (RuntimeException ex) {
+            upstreamFailure = isUpstreamFailure(ex);
+            throw ex;
+        } finally {
+            long elapsed = System.nanoTime() - started;
+            latency.record(elapsed, TimeUnit.NANOSECONDS);
+            release(trial, success, upstreamFailure, latencySignal ? elapsed : -1);
+        }
+    }
+
+    /**
+     * Only 5xx, 429 and connect or read timeouts say the upstream is unhealthy. Local
+     * back-pressure, client disconnects, parse errors and other 4xx must not shrink the limit
+     * or trip the breaker.
+     */
+    static boolean isUpstreamFailure(Throwable failure) {
+        if (failure instanceof HttpServerErrorException) {
+            return true;
+        }
+        if (failure instanceof HttpClientErrorException clientError) {
+            return clientError.getStatusCode().value() == 429;
+        }
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof PerHostConcurrencyLimiter.PermitUnavailableException) {
+                return false;
+            }
+            if (cause instanceof HttpTimeoutException
+                    || cause instanceof SocketTimeoutException
+                    || cause instanceof ConnectException) {
+                return true;
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    private boolean acquire() {
+        lock.lock();
+        try {
+            boolean trial = false;
+            if (state == CircuitState.OPEN) {
+                long remaining = openNanos - (System.nanoTime() - openedAt);
+                if (remaining > 0) {
+                    rejectedCircuitOpen.increment();
+                    throw new LlmUnavailableException("AI service is temporarily unavailable",
+                            Math.max(1, TimeUnit.NANOSECONDS.toSeconds(remaining)));
+                }
+                state = CircuitState.HALF_OPEN;
+            }
+            if (state == CircuitState.HALF_OPEN) {
+                if (trialInFlight) {
+                    rejectedCircuitOpen.increment();
+                    throw new LlmUnavailableException("AI service is recovering, please retry", retryAfterSeconds);
+                }
+                trialInFlight = true;
+                trial = true;
+            }
+
+            if (inFlight >= (int) limit) {
+                if (queued >= maxQueue) {
+                    rejectedQueueFull.increment();
+                    clearTrial(trial);
+                    throw new LlmUnavailableException("AI service is busy, please retry", retryAfterSeconds);
+                }
+                queued++;
+                try {
+                    long remaining = TimeUnit.MILLISECONDS.toNanos(queueTimeoutMs);
+                    while (inFlight >= (int) limit) {
+                        if (remaining <= 0) {
+                            rejectedQueueTimeout.increment();
+                            clearTrial(trial);
+                            throw new LlmUnavailableException("AI service is busy, please retry", retryAfterSeconds);
+                        }
+                        remaining = slotFreed.awaitNanos(remaining);
+                    }
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    clearTrial(trial);
+                    throw new LlmUnavailableException("Interrupted waiting for the AI service", retryAfterSeconds);
+                } finally {
+                    queued--;
+                }
+            }
+            inFlight++;
+            return trial;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release(boolean trial, boolean success, boolean upstreamFailure, long latencyNanos) {
+        lock.lock();
+        try {
+            inFlight--;
+            if (trial) {
+                trialInFlight = false;
+            }
+
+            if (success) {
+                consecutiveFailures = 0;
+                if (state == CircuitState.HALF_OPEN) {
+                    state = CircuitState.CLOSED;
+                    logger.info("LLM circuit closed");
+                }
+                if (latencyNanos >= 0) {
+                    if (latencyNanos <= latencyTargetNanos) {
+                        limit = Math.min(maxLimit, limit + 1.0 / limit);
+                    } else {
+                        limit = Math.max(minLimit, limit * backoffRatio);
+                    }
+                }
+            } else if (upstreamFailure) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+                consecutiveFailures++;
+                if (state == CircuitState.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+                    if (state != CircuitState.OPEN) {
+                        logger.warn("LLM circuit opened after {} consecutive failures", consecutiveFailures);
+                    }
+                    state = CircuitState.OPEN;
+                    openedAt = System.nanoTime();
+                }
+            } else if (state == CircuitState.HALF_OPEN) {
+                // Trial ended with a non-upstream error; let the next call try again
+                state = CircuitState.OPEN;
+                openedAt = System.nanoTime() - openNanos;
+            }
+            slotFreed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void clearTrial(boolean trial) {
+        if (trial) {
+            trialInFlight = false;
+        }
+    }
+
+    private double read(Supplier<Double> value) {
+        lock.lock();
+        try {
+            return value.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,461 @@
+package com.hostel.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hostel.dto.EmbeddingVector;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process {@link VectorStore} for single-node deployments: an exact (flat) cosine index
+ * whose L2-normalised float32 vectors live in a memory-mapped file under
+ * {@code vector.local.dataDir}, so they stay off the Java heap and survive restarts.
+ * Ids and metadata are kept in memory and persisted as an append-only JSON lines log, which is
+ * rewritten from the live entries on startup and whenever it grows past
+ * {@code vector.local.compactionRatio} times the live entry count. Slots freed by
+ * {@link #delete} are reused by later inserts.
+ * <p>
+ * Distances are cosine distances ({@code 1 - cos}), as in the Chroma collection.
+ * The scan is a tight loop over contiguous floats (roughly half a microsecond per 768-dim
+ * vector), which keeps a hostel-sized collection in the low milliseconds without the
+ * build cost and recall trade-offs of an approximate index.
+ */
+@Component
+@ConditionalOnProperty(name = "vector.store", havingValue = "local")
+public class LocalVectorStore implements VectorStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalVectorStore.class);
+
+    private static final int MAGIC = 0x56454331; // "VEC1"
+    private static final int HEADER_BYTES = 16;   // magic, dimensions, count, reserved
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final String VECTORS_FILE = "vectors.f32";
+    private static final String ENTRIES_FILE = "entries.jsonl";
+    private static final int COMPACTION_MIN_ENTRIES = 1024;
+
+    @Value("${vector.local.dataDir:./data/vector-index}")
+    private String dataDir;
+
+    @Value("${vector.local.compactionRatio:3}")
+    private int compactionRatio;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private FileChannel vectorChannel;
+    private FileChannel entriesChannel;
+    private MappedByteBuffer mapped;
+    private FloatBuffer floats;
+    private int dimensions;
+    private int count;
+    private int capacity;
+    private Path entriesFile;
+    private long logEntries;
+
+    private final Map<String, Integer> slotById = new HashMap<>();
+    private final List<String> idBySlot = new ArrayList<>();
+    private final List<Map<String, Object>> metadataBySlot = new ArrayList<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+
+    @PostConstruct
+    public void open() throws IOException {
+        Path dir = Paths.get(dataDir);
+        Files.createDirectories(dir);
+        vectorChannel = FileChannel.open(dir.resolve(VECTORS_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        entriesFile = dir.resolve(ENTRIES_FILE);
+
+        if (vectorChannel.size() >= HEADER_BYTES) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            vectorChannel.read(header, 0);
+            header.flip();
+            if (header.getInt() != MAGIC) {
+                throw new IllegalStateException("Not a vector index file: " + dir.resolve(VECTORS_FILE));
+            }
+            dimensions = header.getInt();
+            count = header.getInt();
+            if (dimensions > 0) {
+                map(Math.max(count, (int) ((vectorChannel.size() - HEADER_BYTES) / ((long) dimensions * Float.BYTES))));
+            }
+        }
+        replayEntries();
+        for (int slot = 0; slot < count; slot++) {
+            if (slot >= idBySlot.size() || idBySlot.get(slot) == null) {
+                freeSlots.add(slot);
+            }
+        }
+        if (logEntries > slotById.size()) {
+            compact();
+        } else {
+            openEntriesLog();
+        }
+        logger.info("Local vector index opened at {} with {} vectors", dir.toAbsolutePath(), slotById.size());
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (mapped != null) {
+                mapped.force();
+            }
+            vectorChannel.close();
+            entriesChannel.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public boolean ensureCollection() {
+        // Files are created on startup and always hold cosine distances
+        return true;
+    }
+
+    @Override
+    public void recreateCollection() {
+        lock.writeLock().lock();
+        try {
+            slotById.clear();
+            idBySlot.clear();
+            metadataBySlot.clear();
+            freeSlots.clear();
+            count = 0;
+            // The next upsert sets the dimensions, so a rebuild may switch embedding models
+            dimensions = 0;
+            // Header first: a crash before the log is rewritten leaves every old entry past the count
+            if (mapped != null) {
+                writeHeader();
+                mapped.force();
+            }
+            compact();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void upsert(List<VectorRecord> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            StringBuilder log = new StringBuilder();
+            int nextCount = count;
+            for (VectorRecord record : records) {
+                float[] values = record.embedding().values();
+                if (values.length == 0) {
+                    throw new IllegalArgumentException("Empty embedding for " + record.id());
+                }
+                if (dimensions == 0) {
+                    dimensions = values.length;
+                    map(INITIAL_CAPACITY);
+                } else if (values.length != dimensions) {
+                    throw new IllegalArgumentException("Embedding has " + values.length
+                            + " dimensions, index expects " + dimensions);
+                }
+
+                Integer slot = slotById.get(record.id());
+                if (slot == null) {
+                    slot = freeSlots.poll();
+                }
+                if (slot == null) {
+                    slot = nextCount++;
+                    if (slot >= capacity) {
+                        map(Math.max(capacity * 2, slot + 1));
+                    }
+                }
+                floats.put(slot * dimensions, EmbeddingVector.normalize(values));
+                Map<String, Object> metadata = record.metadata() == null ? Map.of() : record.metadata();
+                assign(slot, record.id(), metadata);
+
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("id", record.id());
+                entry.put("slot", slot);
+                entry.put("metadata", metadata);
+                log.append(objectMapper.writeValueAsString(entry)).append('\n');
+            }
+
+            // Vectors, then the entry log, then the count: a crash leaves at most unreferenced slots
+            mapped.force();
+            appendLog(log.toString(), records.size());
+            count = nextCount;
+            writeHeader();
+            mapped.force();
+            compactIfNeeded();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void delete(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            StringBuilder log = new StringBuilder();
+            int deleted = 0;
+            for (String id : ids) {
+                Integer slot = slotById.remove(id);
+                if (slot == null) {
+                    continue;
+                }
+                idBySlot.set(slot, null);
+                metadataBySlot.set(slot, null);
+                freeSlots.add(slot);
+
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("id", id);
+                entry.put("deleted", true);
+                log.append(objectMapper.writeValueAsString(entry)).append('\n');
+                deleted++;
+            }
+            if (deleted > 0) {
+                appendLog(log.toString(), deleted);
+                compactIfNeeded();
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<VectorMatch> query(EmbeddingVector embedding, int topK, Map<String, Object> where) {
+        if (embedding.isEmpty() || topK <= 0) {
+            return Collections.emptyList();
+        }
+        lock.readLock().lock();
+        try {
+            if (count == 0 || embedding.dimensions() != dimensions) {
+                return Collections.emptyList();
+            }
+            float[] query = EmbeddingVector.normalize(embedding.values());
+            float[] candidate = new float[dimensions];
+            // Min-heap on similarity holding the current best topK
+            PriorityQueue<Hit> best = new PriorityQueue<>(topK + 1, (a, b) -> Float.compare(a.similarity(), b.similarity()));
+            for (int slot = 0; slot < count; slot++) {
+                if (idBySlot.get(slot) == null || !matches(metadataBySlot.get(slot), where)) {
+                    continue;
+                }
+                floats.get(slot * dimensions, candidate);
+                float similarity = EmbeddingVector.dot(query, candidate);
+                if (best.size() < topK) {
+                    best.add(new Hit(similarity, slot));
+                } else if (similarity > best.peek().similarity()) {
+                    best.poll();
+                    best.add(new Hit(similarity, slot));
+                }
+            }
+
+            List<VectorMatch> matches = new ArrayList<>(best.size());
+            while (!best.isEmpty()) {
+                Hit hit = best.poll();
+                matches.add(new VectorMatch(idBySlot.get(hit.slot()), Math.max(0.0, 1.0 - hit.similarity()), metadataBySlot.get(hit.slot())));
+            }
+            Collections.reverse(matches);
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void replayEntries() throws IOException {
+        if (!Files.exists(entriesFile)) {
+            return;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(entriesFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                Map<?, ?> entry;
+                try {
+                    entry = objectMapper.readValue(line, Map.class);
+                } catch (IOException ex) {
+                    logger.warn("Skipping unreadable vector index entry: {}", ex.getMessage());
+                    continue;
+                }
+                logEntries++;
+                String id = String.valueOf(entry.get("id"));
+                if (Boolean.TRUE.equals(entry.get("deleted"))) {
+                    Integer slot = slotById.remove(id);
+                    if (slot != null) {
+                        idBySlot.set(slot, null);
+                        metadataBySlot.set(slot, null);
+                    }
+                    continue;
+                }
+                int slot = ((Number) entry.get("slot")).intValue();
+                if (slot >= count) {
+                    continue; // written before a crash that lost the vector count
+                }
+                Map<String, Object> metadata = new LinkedHashMap<>();
+                if (entry.get("metadata") instanceof Map<?, ?> meta) {
+                    meta.forEach((key, value) -> metadata.put(String.valueOf(key), value));
+                }
+                assign(slot, id, metadata);
+            }
+        }
+    }
+
+    private void openEntriesLog() throws IOException {
+        entriesChannel = FileChannel.open(entriesFile,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private void appendLog(String lines, int entries) throws IOException {
+        entriesChannel.write(ByteBuffer.wrap(lines.getBytes(StandardCharsets.UTF_8)));
+        entriesChannel.force(false);
+        logEntries += entries;
+    }
+
+    private void compactIfNeeded() throws IOException {
+        if (logEntries > (long) compactionRatio * Math.max(slotById.size(), COMPACTION_MIN_ENTRIES)) {
+            compact();
+        }
+    }
+
+    // Writes one line per live slot to a temporary file and atomically swaps it in, so a crash
+    // leaves either the old log or the compacted one
+    private void compact() throws IOException {
+        if (entriesChannel != null) {
+            entriesChannel.close();
+        }
+        Path compacted = entriesFile.resolveSibling(ENTRIES_FILE + ".tmp");
+        long previous = logEntries;
+        long written = 0;
+        try (FileChannel out = FileChannel.open(compacted,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            StringBuilder log = new StringBuilder();
+            for (int slot = 0; slot < idBySlot.size(); slot++) {
+                String id = idBySlot.get(slot);
+                if (id == null) {
+                    continue;
+                }
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("id", id);
+                entry.put("slot", slot);
+                entry.put("metadata", metadataBySlot.get(slot));
+                log.append(objectMapper.writeValueAsString(entry)).append('\n');
+                written++;
+            }
+            out.write(ByteBuffer.wrap(log.toString().getBytes(StandardCharsets.UTF_8)));
+            out.force(true);
+        }
+        Files.move(compacted, entriesFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        logEntries = written;
+        openEntriesLog();
+        logger.info("Compacted vector index log from {} to {} entries", previous, written);
+    }
+
+    private void assign(int slot, String id, Map<String, Object> metadata) {
+        while (idBySlot.size() <= slot) {
+            idBySlot.add(null);
+            metadataBySlot.add(null);
+        }
+        String previous = idBySlot.get(slot);
+        if (previous != null && !previous.equals(id)) {
+            slotById.remove(previous, slot);
+        }
+        idBySlot.set(slot, id);
+        metadataBySlot.set(slot, metadata);
+        slotById.put(id, slot);
+    }
+
+    private void map(int slots) throws IOException {
+        long bytes = HEADER_BYTES + (long) slots * dimensions * Float.BYTES;
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Local vector index is full (" + capacity + " vectors)");
+        }
+        mapped = vectorChannel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+        mapped.order(ByteOrder.LITTLE_ENDIAN);
+        floats = mapped.slice(HEADER_BYTES, (int) bytes - HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer();
+        capacity = slots;
+        writeHeader();
+    }
+
+    private void writeHeader() {
+        mapped.putInt(0, MAGIC);
+        mapped.putInt(4, dimensions);
+        mapped.putInt(8, count);
+    }
+
+    private static boolean matches(Map<String, Object> metadata, Map<String, Object> where) {
+        if (where == null || where.isEmpty()) {
+            return true;
+        }
+        if (metadata == null) {
+            return false;
+        }
+        for (Map.Entry<String, Object> condition : where.entrySet()) {
+            Object value = metadata.get(condition.getKey());
+            if (value == null || !satisfies(value, condition.getValue())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Values come back from the JSON log with their JSON types, so compare numbers and text loosely
+    private static boolean satisfies(Object value, Object expected) {
+        if (expected instanceof Collection<?> options) {
+            for (Object option : options) {
+                if (satisfies(value, option)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        if (expected instanceof Range range) {
+            return value instanceof Number number && range.contains(number);
+        }
+        return String.valueOf(value).equals(String.valueOf(expected));
+    }
+
+    private record Hit(float similarity, int slot) {}
+}
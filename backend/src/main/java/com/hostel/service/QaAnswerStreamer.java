@@ -0,0 +1,109 @@
+package com.hostel.service;
+
+import com.hostel.config.BoundedExecutorFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Runs a streaming Q&A generation off the request thread and relays it as Server-Sent Events:
+ * {@code chunk} events carrying {@code {"text": ...}}, then a single {@code done} event, or an
+ * {@code error} event with {@code {"message": ...}}. A client disconnect only stops forwarding;
+ * the upstream read finishes so its answer can still be cached and shared.
+ */
+@Component
+public class QaAnswerStreamer {
+
+    private static final Logger logger = LoggerFactory.getLogger(QaAnswerStreamer.class);
+
+    private final Executor executor;
+    private final long timeoutMs;
+    private final Timer firstChunk;
+
+    public QaAnswerStreamer(MeterRegistry meterRegistry,
+                            BoundedExecutorFactory executorFactory,
+                            @Value("${qa.stream.maxConcurrent:16}") int maxConcurrent,
+                            @Value("${qa.stream.timeoutMs:120000}") long timeoutMs) {
+        this.executor = executorFactory.create("qa-stream-", maxConcurrent);
+        this.timeoutMs = timeoutMs;
+        this.firstChunk = Timer.builder("qa.stream.first_chunk")
+                .description("Time from request to the first streamed answer chunk")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        BoundedExecutorFactory.shutdown(executor);
+    }
+
+    /**
+     * @param generation receives the chunk sink and returns the complete answer
+     */
+    public SseEmitter stream(Function<Consumer<String>, String> generation) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        AtomicBoolean closed = new AtomicBoolean();
+        emitter.onTimeout(() -> closed.set(true));
+        emitter.onError(ex -> closed.set(true));
+        emitter.onCompletion(() -> closed.set(true));
+        long started = System.nanoTime();
+        try {
+            executor.execute(() -> run(emitter, closed, generation, started));
+        } catch (RejectedExecutionException ex) {
+            emitter.completeWithError(ex);
+        }
+        return emitter;
+    }
+
+    private void run(SseEmitter emitter, AtomicBoolean closed, Function<Consumer<String>, String> generation,
+                     long started) {
+        boolean[] first = {true};
+        Consumer<String> sink = text -> {
+            if (first[0]) {
+                first[0] = false;
+                firstChunk.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            }
+            send(emitter, closed, "chunk", Map.of("text", text));
+        };
+        try {
+            generation.apply(sink);
+            send(emitter, closed, "done", Map.of());
+        } catch (Exception ex) {
+            logger.error("Streaming answer failed: {}", ex.getMessage());
+            String message = ex.getMessage() != null ? ex.getMessage() : "Answer generation failed";
+            send(emitter, closed, "error", Map.of("message", message));
+        }
+        if (!closed.get()) {
+            emitter.complete();
+        }
+    }
+
+    // Never throws: after a disconnect the generation runs to the end, so the shared LlmAnswerCache
+    // entry still completes for coalesced callers and the disconnect never reaches them or LlmGuard
+    private void send(SseEmitter emitter, AtomicBoolean closed, String name, Object data) {
+        if (closed.get()) {
+            return;
+        }
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON));
+        } catch (IOException | IllegalStateException ex) {
+            // Disconnected, timed out or already completed
+            logger.debug("SSE client gone: {}", ex.getMessage());
+            closed.set(true);
+        }
+    }
+}
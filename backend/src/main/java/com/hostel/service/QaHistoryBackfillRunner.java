@@ -0,0 +1,42 @@
+package com.hostel.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Brings QA history written by older versions up to date with the columns the
+ * analytics queries rely on. Each step records a completion marker and is skipped
+ * on later boots.
+ */
+@Component
+public class QaHistoryBackfillRunner implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(QaHistoryBackfillRunner.class);
+
+    @Value("${qa.history.backfillOnStartup:true}")
+    private boolean backfillOnStartup;
+
+    @Autowired
+    private QaHistoryService qaHistoryService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!backfillOnStartup) {
+            return;
+        }
+        int flagged = qaHistoryService.backfillErrorFlagsOnce();
+        if (flagged > 0) {
+            logger.info("Flagged {} historical QA answers as errors", flagged);
+        }
+        // Runs after the error flags so the rebuilt error counts are correct
+        int rollupRows = qaHistoryService.backfillRollupOnce();
+        if (rollupRows > 0) {
+            logger.info("Backfilled {} QA daily rollup rows", rollupRows);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.hostel.service;
+
+import com.hostel.entity.MaintenanceMarker;
+import com.hostel.entity.QaHistory;
+import com.hostel.repository.MaintenanceMarkerRepository;
+import com.hostel.repository.QaDailyRollupRepository;
+import com.hostel.repository.QaHistoryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Persists assistant Q&A history together with the daily usage rollup.
+ */
+@Service
+public class QaHistoryService {
+
+    static final String ERROR_FLAGS_MARKER = "qa_history.error_flags";
+    static final String ROLLUP_MARKER = "qa_daily_rollup.rebuild";
+    private static final int MAX_ANSWER_CHARS = 4000;
+
+    @Autowired
+    private QaHistoryRepository qaHistoryRepository;
+
+    @Autowired
+    private QaDailyRollupRepository qaDailyRollupRepository;
+
+    @Autowired
+    private MaintenanceMarkerRepository markerRepository;
+
+    @Transactional
+    public void record(Long userId, boolean admin, String question, String answer, long latencyMs) {
+        if (answer == null) {
+            return;
+        }
+        save(userId, admin, question, answer, false, latencyMs);
+    }
+
+    /**
+     * Records a question whose answer could not be generated; the failure message is kept in
+     * place of the answer.
+     */
+    @Transactional
+    public void recordFailure(Long userId, boolean admin, String question, Throwable failure, long latencyMs) {
+        String message = "Error: " + (failure.getMessage() != null ? failure.getMessage() : failure.getClass().getSimpleName());
+        save(userId, admin, question, message.length() > MAX_ANSWER_CHARS ? message.substring(0, MAX_ANSWER_CHARS) : message,
+                true, latencyMs);
+    }
+
+    private void save(Long userId, boolean admin, String question, String answer, boolean error, long latencyMs) {
+        if (userId == null || question == null) {
+            return;
+        }
+        LocalDateTime askedAt = LocalDateTime.now();
+
+        QaHistory history = new QaHistory(userId, admin, question, answer, askedAt);
+        history.setError(error);
+        history.setLatencyMs(latencyMs);
+        qaHistoryRepository.save(history);
+
+        qaDailyRollupRepository.increment(askedAt.toLocalDate(), userId, admin, error ? 1 : 0, latencyMs);
+    }
+
+    /**
+     * Flags answers written before is_error existed. Runs once; the marker is written in the
+     * same transaction so later boots skip the answer-text scan entirely.
+     */
+    @Transactional
+    public int backfillErrorFlagsOnce() {
+        if (markerRepository.existsById(ERROR_FLAGS_MARKER)) {
+            return 0;
+        }
+        int flagged = qaHistoryRepository.backfillErrorFlags();
+        markerRepository.save(new MaintenanceMarker(ERROR_FLAGS_MARKER, LocalDateTime.now()));
+        return flagged;
+    }
+
+    /**
+     * Rebuilds the rollup from raw history the first time it runs (first start after the
+     * rollup table was introduced). Keyed on a completion marker rather than an empty table,
+     * since record() may already have added rows. The table lock makes concurrent record()
+     * calls wait, so their increments land on top of the rebuilt totals instead of being
+     * counted twice or overwritten.
+     */
+    @Transactional
+    public int backfillRollupOnce() {
+        if (markerRepository.existsById(ROLLUP_MARKER)) {
+            return 0;
+        }
+        qaDailyRollupRepository.lockForRebuild();
+        if (markerRepository.existsById(ROLLUP_MARKER)) {
+            return 0;
+        }
+        int rows = qaDailyRollupRepository.rebuildFromHistory();
+        markerRepository.save(new MaintenanceMarker(ROLLUP_MARKER, LocalDateTime.now()));
+        return rows;
+    }
+}
@@ -0,0 +1,107 @@
+package com.hostel.service;
+
+import com.hostel.entity.Category;
+import com.hostel.entity.Status;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Structured filters read from a natural-language Q&A question: categories, statuses, a
+ * creation-date window and whether the question asks for a count or a full listing. The
+ * remaining content words are kept for full-text search.
+ */
+public record QuestionIntent(Set<Category> categories,
+                             Set<Status> statuses,
+                             LocalDateTime from,
+                             LocalDateTime to,
+                             boolean aggregate,
+                             List<String> keywords) {
+
+    private static final Pattern WORD = Pattern.compile("[a-z0-9]+");
+    private static final Pattern LAST_N_DAYS = Pattern.compile("\\b(?:last|past)\\s+(\\d{1,3})\\s+days?\\b");
+    private static final Pattern AGGREGATE = Pattern.compile(
+            "\\bhow many\\b|\\bcount\\b|\\bnumber of\\b|\\b(?:list|show)(?: me)? all\\b|\\btotal\\b");
+
+    // Words that only carry intent (or nothing) and would drown the full-text query
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "about", "all", "am", "an", "and", "any", "are", "as", "at", "be", "been", "by", "can", "complaint",
+            "complaints", "count", "days", "did", "do", "does", "for", "from", "give", "has", "have", "how", "i",
+            "in", "is", "issue", "issues", "it", "last", "list", "many", "me", "month", "my", "number", "of", "on",
+            "near", "or", "our", "past", "please", "problem", "problems", "raised", "request", "requests", "show", "status", "still", "tell", "that", "the", "there", "these",
+            "this", "those", "to", "today", "total", "was", "week", "were", "what", "when", "where", "which",
+            "who", "why", "with", "yesterday", "you", "your",
+            "plumbing", "plumber", "plumbering", "electrical", "electrician", "electric", "carpentry", "carpenter",
+            "ragging", "open", "opened", "pending", "unresolved", "resolved", "closed", "solved", "fixed", "progress");
+
+    public static QuestionIntent parse(String question, LocalDate today) {
+        String q = question == null ? "" : question.toLowerCase(Locale.ROOT);
+
+        Set<Category> categories = EnumSet.noneOf(Category.class);
+        if (q.contains("plumb")) categories.add(Category.PLUMBING);
+        if (q.contains("electric")) categories.add(Category.ELECTRICAL);
+        if (q.contains("carpent")) categories.add(Category.CARPENTRY);
+        if (q.contains("ragging")) categories.add(Category.RAGGING);
+
+        Set<Status> statuses = EnumSet.noneOf(Status.class);
+        if (q.contains("in progress") || q.contains("in-progress")) statuses.add(Status.IN_PROGRESS);
+        if (q.matches("(?s).*\\b(?:open|opened|pending|unresolved)\\b.*")) statuses.add(Status.OPEN);
+        if (q.matches("(?s).*\\b(?:resolved|closed|solved|fixed)\\b.*") && !q.contains("unresolved")) {
+            statuses.add(Status.RESOLVED);
+        }
+
+        LocalDate from = null;
+        LocalDate to = null;
+        Matcher lastDays = LAST_N_DAYS.matcher(q);
+        if (lastDays.find()) {
+            from = today.minusDays(Integer.parseInt(lastDays.group(1)));
+        } else if (q.contains("yesterday")) {
+            from = today.minusDays(1);
+            to = today;
+        } else if (q.contains("today")) {
+            from = today;
+        } else if (q.contains("last week")) {
+            to = today.with(DayOfWeek.MONDAY);
+            from = to.minusWeeks(1);
+        } else if (q.contains("this week")) {
+            from = today.with(DayOfWeek.MONDAY);
+        } else if (q.contains("last month")) {
+            to = today.withDayOfMonth(1);
+            from = to.minusMonths(1);
+        } else if (q.contains("this month")) {
+            from = today.withDayOfMonth(1);
+        }
+
+        List<String> keywords = new ArrayList<>();
+        Matcher words = WORD.matcher(q);
+        while (words.find()) {
+            String word = words.group();
+            if (word.length() >= 3 && !STOP_WORDS.contains(word) && !keywords.contains(word)) {
+                keywords.add(word);
+            }
+        }
+
+        return new QuestionIntent(categories, statuses,
+                from != null ? from.atStartOfDay() : null,
+                to != null ? to.atStartOfDay() : null,
+                AGGREGATE.matcher(q).find(),
+                keywords);
+    }
+
+    public boolean hasFilters() {
+        return !categories.isEmpty() || !statuses.isEmpty() || from != null || to != null;
+    }
+
+    /** Keywords as a websearch_to_tsquery OR query, or null when nothing is left to search for. */
+    public String textQuery() {
+        return keywords.isEmpty() ? null : String.join(" or ", keywords);
+    }
+}
@@ -1,19 +1,32 @@
 package com.hostel.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestTemplate;
 
 import jakarta.annotation.PostConstruct;
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
 @Service
 public class RagLlmClient {
@@ -29,7 +42,21 @@ public class RagLlmClient {
     @Value("${rag.llm.model}")
     private String model;
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    // Derived from rag.llm.api.url (":generateContent" -> ":streamGenerateContent") when blank
+    @Value("${rag.llm.stream.api.url:}")
+    private String streamApiUrl;
+
+    @Autowired
+    private LlmAnswerCache answerCache;
+
+    @Autowired
+    private LlmGuard llmGuard;
+
+    @Autowired
+    @Qualifier("geminiRestTemplate")
+    private RestTemplate restTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
 
     @PostConstruct
     public void validateConfiguration() {
@@ -42,10 +69,26 @@ public class RagLlmClient {
         if (apiUrl == null || apiUrl.isBlank()) {
             throw new IllegalStateException("RAG LLM API URL not configured. Set rag.llm.api.url in application.properties.");
         }
+        if (streamApiUrl == null || streamApiUrl.isBlank()) {
+            streamApiUrl = apiUrl.replace(":generateContent", ":streamGenerateContent");
+        }
         logger.info("RagLlmClient initialized successfully with API URL: {}", apiUrl);
     }
 
+    /**
+     * Cached variant for Q&A: identical (prompt, question, context) requests reuse or join a
+     * single upstream call. {@code sourceIds} are the complaints the context was built from.
+     */
+    public String generateAnswer(String systemPrompt, String question, String context, Collection<Long> sourceIds) {
+        return answerCache.get(systemPrompt, question, context, sourceIds,
+                () -> generateAnswer(systemPrompt, question, context));
+    }
+
     public String generateAnswer(String systemPrompt, String question, String context) {
+        return llmGuard.call(() -> requestAnswer(systemPrompt, question, context), true);
+    }
+
+    private String requestAnswer(String systemPrompt, String question, String context) {
         if (apiUrl == null || apiUrl.isBlank() || apiKey == null || apiKey.isBlank()) {
             return "LLM configuration is missing. Please set rag.llm.api.url and LLM_API_KEY.";
         }
@@ -54,20 +97,7 @@ public class RagLlmClient {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
 
-        Map<String, Object> body = new HashMap<>();
-        body.put("model", model);
-
-        String combined = systemPrompt + "\n\nContext:\n" + context + "\n\nQuestion: " + question;
-
-        Map<String, Object> part = new HashMap<>();
-        part.put("text", combined);
-
-        Map<String, Object> content = new HashMap<>();
-        content.put("parts", List.of(part));
-
-        body.put("contents", List.of(content));
-
-        HttpEntity<Map<String, Object>> entity = new HttpEntity<>(body, headers);
+        HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody(systemPrompt, question, context), headers);
 
         String urlWithKey = apiUrl + (apiUrl.contains("?") ? "&" : "?") + "key=" + apiKey;
 
@@ -127,4 +157,96 @@ public class RagLlmClient {
             throw new RuntimeException("Error calling LLM API: " + ex.getMessage(), ex);
         }
     }
+
+    /**
+     * Cached, streaming variant for Q&A. On a cache miss the answer is generated through
+     * streamGenerateContent and each text chunk is passed to {@code onChunk} as it arrives;
+     * a cached or coalesced answer is delivered as a single chunk. Returns the full text.
+     */
+    public String streamAnswer(String systemPrompt, String question, String context, Collection<Long> sourceIds,
+                               Consumer<String> onChunk) {
+        AtomicBoolean streamed = new AtomicBoolean();
+        String answer = answerCache.get(systemPrompt, question, context, sourceIds, () -> {
+            streamed.set(true);
+            return streamAnswer(systemPrompt, question, context, onChunk);
+        });
+        if (!streamed.get()) {
+            onChunk.accept(answer);
+        }
+        return answer;
+    }
+
+    public String streamAnswer(String systemPrompt, String question, String context, Consumer<String> onChunk) {
+        return llmGuard.call(() -> requestStream(systemPrompt, question, context, onChunk), false);
+    }
+
+    private String requestStream(String systemPrompt, String question, String context, Consumer<String> onChunk) {
+        if (apiUrl == null || apiUrl.isBlank() || apiKey == null || apiKey.isBlank()) {
+            String message = "LLM configuration is missing. Please set rag.llm.api.url and LLM_API_KEY.";
+            onChunk.accept(message);
+            return message;
+        }
+
+        String url = streamApiUrl + (streamApiUrl.contains("?") ? "&" : "?") + "alt=sse&key=" + apiKey;
+        Map<String, Object> body = requestBody(systemPrompt, question, context);
+
+        RequestCallback writeBody = request -> {
+            request.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            objectMapper.writeValue(request.getBody(), body);
+        };
+        // Each SSE "data:" line carries one GenerateContentResponse with the next slice of text
+        ResponseExtractor<String> readEvents = response -> {
+            StringBuilder answer = new StringBuilder();
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(response.getBody(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.startsWith("data:")) {
+                        continue;
+                    }
+                    JsonNode event = objectMapper.readTree(line.substring(5).trim());
+                    if (event.has("error")) {
+                        throw new RuntimeException("LLM API error: " + event.path("error").path("message").asText());
+                    }
+                    for (JsonNode part : event.path("candidates").path(0).path("content").path("parts")) {
+                        String text = part.path("text").asText("");
+                        if (!text.isEmpty()) {
+                            answer.append(text);
+                            onChunk.accept(text);
+                        }
+                    }
+                }
+            }
+            return answer.toString();
+        };
+
+        try {
+            String answer = restTemplate.execute(url, HttpMethod.POST, writeBody, readEvents);
+            if (answer == null || answer.isEmpty()) {
+                throw new RuntimeException("Unexpected response format from LLM API.");
+            }
+            return answer;
+        } catch (RuntimeException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            logger.error("Error streaming from LLM API", ex);
+            throw new RuntimeException("Error calling LLM API: " + ex.getMessage(), ex);
+        }
+    }
+
+    private Map<String, Object> requestBody(String systemPrompt, String question, String context) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("model", model);
+
+        String combined = systemPrompt + "\n\nContext:\n" + context + "\n\nQuestion: " + question;
+
+        Map<String, Object> part = new HashMap<>();
+        part.put("text", combined);
+
+        Map<String, Object> content = new HashMap<>();
+        content.put("parts", List.of(part));
+
+        body.put("contents", List.of(content));
+        return body;
+    }
 }
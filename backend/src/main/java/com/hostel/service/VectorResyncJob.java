@@ -0,0 +1,224 @@
+package com.hostel.service;
+
+import com.hostel.config.BoundedExecutorFactory;
+import com.hostel.dto.VectorSyncStatusDTO;
+import com.hostel.entity.Complaint;
+import com.hostel.entity.VectorSyncCheckpoint;
+import com.hostel.repository.ComplaintRepository;
+import com.hostel.repository.VectorSyncCheckpointRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Background re-index of every complaint into the vector store. A coordinator thread reads
+ * complaints in id-ordered chunks and hands each chunk to a bounded pool of workers that
+ * embed and upsert it. Chunks are acknowledged in order, so the checkpoint only advances past
+ * ids that are fully indexed. A failed chunk (after retries) stops the run, and the next run
+ * resumes from the checkpoint. Complaints whose {@code embedding_state} is current are skipped
+ * unless the run rebuilds from scratch.
+ */
+@Service
+public class VectorResyncJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(VectorResyncJob.class);
+
+    static final String JOB_NAME = "vector-index";
+
+    @Autowired
+    private ComplaintRepository complaintRepository;
+
+    @Autowired
+    private VectorSyncCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private ChromaClient chromaClient;
+
+    @Autowired
+    private BoundedExecutorFactory executorFactory;
+
+    // 100 matches one batchEmbedContents call
+    @Value("${chroma.sync.chunkSize:100}")
+    private int chunkSize;
+
+    @Value("${chroma.sync.workers:4}")
+    private int workerCount;
+
+    @Value("${chroma.sync.maxAttempts:3}")
+    private int maxAttempts;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private Executor coordinator;
+    private Executor workers;
+
+    @PostConstruct
+    public void init() {
+        chunkSize = Math.max(1, chunkSize);
+        workerCount = Math.max(1, workerCount);
+        coordinator = executorFactory.create("vector-resync-", 1);
+        workers = executorFactory.create("vector-resync-worker-", workerCount);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        BoundedExecutorFactory.shutdown(coordinator);
+        BoundedExecutorFactory.shutdown(workers);
+    }
+
+    /**
+     * Starts a run in the background unless one is already going.
+     *
+     * @param resume continue an unfinished or failed run from its checkpoint, skipping
+     *               complaints unchanged since they were last indexed; false drops the index
+     *               and rebuilds it from the first complaint. A resume on a collection with the
+     *               wrong distance space is turned into a rebuild
+     * @return false if a run was already in progress
+     */
+    public boolean start(boolean resume) {
+        if (!chromaClient.isEnabled()) {
+            throw new IllegalStateException("Vector store is not configured");
+        }
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            coordinator.execute(() -> {
+                try {
+                    run(resume);
+                } finally {
+                    running.set(false);
+                }
+            });
+        } catch (RuntimeException ex) {
+            running.set(false);
+            throw ex;
+        }
+        return true;
+    }
+
+    public VectorSyncStatusDTO status() {
+        VectorSyncStatusDTO dto = new VectorSyncStatusDTO();
+        dto.setRunning(running.get());
+        checkpointRepository.findById(JOB_NAME).ifPresentOrElse(checkpoint -> {
+            dto.setState(checkpoint.getState().name());
+            dto.setLastIndexedId(checkpoint.getLastIndexedId());
+            dto.setIndexedCount(checkpoint.getIndexedCount());
+            dto.setTotalCount(checkpoint.getTotalCount());
+            dto.setPercentComplete(checkpoint.getTotalCount() == 0 ? 100.0
+                    : Math.min(100.0, 100.0 * checkpoint.getIndexedCount() / checkpoint.getTotalCount()));
+            dto.setStartedAt(checkpoint.getStartedAt());
+            dto.setUpdatedAt(checkpoint.getUpdatedAt());
+            dto.setCompletedAt(checkpoint.getCompletedAt());
+            dto.setLastError(checkpoint.getLastError());
+        }, () -> dto.setState("NEVER_RUN"));
+        return dto;
+    }
+
+    private void run(boolean resume) {
+        VectorSyncCheckpoint checkpoint = checkpointRepository.findById(JOB_NAME)
+                .orElseGet(() -> new VectorSyncCheckpoint(JOB_NAME));
+        // A collection left on another distance space (squared L2 before cosine) cannot be patched in place
+        if (resume && !chromaClient.ensureCollection()) {
+            logger.info("Vector index uses the wrong distance space; rebuilding it from scratch");
+            resume = false;
+        }
+        boolean continuing = resume && checkpoint.getState() != VectorSyncCheckpoint.State.COMPLETED;
+        if (!continuing) {
+            checkpoint.setLastIndexedId(0);
+            checkpoint.setIndexedCount(0);
+            checkpoint.setStartedAt(LocalDateTime.now());
+        }
+        checkpoint.setState(VectorSyncCheckpoint.State.RUNNING);
+        checkpoint.setCompletedAt(null);
+        checkpoint.setLastError(null);
+        checkpoint.setTotalCount(checkpoint.getIndexedCount()
+                + complaintRepository.countByIdGreaterThan(checkpoint.getLastIndexedId()));
+        checkpoint = save(checkpoint);
+        logger.info("Vector re-sync {} after complaint id {} ({} remaining)",
+                continuing ? "resuming" : "starting", checkpoint.getLastIndexedId(),
+                checkpoint.getTotalCount() - checkpoint.getIndexedCount());
+
+        Deque<PendingChunk> inFlight = new ArrayDeque<>();
+        try {
+            if (!resume) {
+                chromaClient.recreateIndex();
+            }
+            long cursor = checkpoint.getLastIndexedId();
+            while (true) {
+                List<Complaint> chunk = complaintRepository.findChunkAfter(cursor, PageRequest.of(0, chunkSize));
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                cursor = chunk.get(chunk.size() - 1).getId();
+                boolean force = !resume;
+                inFlight.add(new PendingChunk(cursor, chunk.size(),
+                        CompletableFuture.runAsync(() -> upsertWithRetry(chunk, force), workers)));
+                while (inFlight.size() >= workerCount) {
+                    checkpoint = acknowledge(inFlight.poll(), checkpoint);
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                checkpoint = acknowledge(inFlight.poll(), checkpoint);
+            }
+            checkpoint.setState(VectorSyncCheckpoint.State.COMPLETED);
+            checkpoint.setCompletedAt(LocalDateTime.now());
+            logger.info("Vector re-sync completed: {} complaints", checkpoint.getIndexedCount());
+        } catch (Exception ex) {
+            Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+            String message = String.valueOf(cause.getMessage());
+            checkpoint.setState(VectorSyncCheckpoint.State.FAILED);
+            checkpoint.setLastError(message.length() > 1000 ? message.substring(0, 1000) : message);
+            logger.warn("Vector re-sync stopped after complaint id {}: {}", checkpoint.getLastIndexedId(), message);
+        }
+        save(checkpoint);
+    }
+
+    // Waits for the oldest chunk, then moves the checkpoint past it
+    private VectorSyncCheckpoint acknowledge(PendingChunk chunk, VectorSyncCheckpoint checkpoint) {
+        chunk.done().join();
+        checkpoint.setLastIndexedId(chunk.lastId());
+        checkpoint.setIndexedCount(checkpoint.getIndexedCount() + chunk.size());
+        return save(checkpoint);
+    }
+
+    private void upsertWithRetry(List<Complaint> chunk, boolean force) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                chromaClient.upsertComplaints(chunk, force);
+                return;
+            } catch (RuntimeException ex) {
+                if (attempt >= maxAttempts) {
+                    throw ex;
+                }
+                logger.debug("Re-sync chunk attempt {} failed: {}", attempt, ex.getMessage());
+                try {
+                    Thread.sleep(1000L * attempt);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw ex;
+                }
+            }
+        }
+    }
+
+    private VectorSyncCheckpoint save(VectorSyncCheckpoint checkpoint) {
+        checkpoint.setUpdatedAt(LocalDateTime.now());
+        return checkpointRepository.save(checkpoint);
+    }
+
+    private record PendingChunk(long lastId, int size, CompletableFuture<Void> done) {}
+}
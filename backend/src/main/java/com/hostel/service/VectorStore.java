@@ -0,0 +1,62 @@
+package com.hostel.service;
+
+import com.hostel.dto.EmbeddingVector;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Storage backend for complaint embeddings. {@link ChromaClient} handles PII masking and
+ * embedding and delegates persistence and nearest-neighbour search to the store selected
+ * by {@code vector.store} ({@code chroma} or {@code local}).
+ */
+public interface VectorStore {
+
+    boolean isEnabled();
+
+    /**
+     * Creates the collection if it is missing.
+     *
+     * @return false when an existing collection measures distance other than by cosine and has
+     * to be rebuilt with {@link #recreateCollection()}
+     */
+    boolean ensureCollection();
+
+    /**
+     * Drops every record and starts an empty collection with cosine distance. Used by full
+     * re-index runs, which then fill it again.
+     */
+    void recreateCollection();
+
+    /**
+     * Inserts or replaces the given records. Failures are thrown so callers can retry.
+     */
+    void upsert(List<VectorRecord> records);
+
+    /**
+     * Removes the records with the given ids; unknown ids are ignored.
+     */
+    void delete(Collection<String> ids);
+
+    /**
+     * Returns up to {@code topK} nearest records, closest first, with cosine distances
+     * ({@code 1 - cosine similarity}, 0 for identical directions) in every implementation. Every entry of {@code where}
+     * must hold for the record's metadata value: a {@link java.util.Collection} matches any of
+     * its elements, a {@link Range} bounds a number, anything else must be equal. An empty map
+     * matches everything.
+     */
+    List<VectorMatch> query(EmbeddingVector embedding, int topK, Map<String, Object> where);
+
+    record VectorRecord(String id, EmbeddingVector embedding, String document, Map<String, Object> metadata) {}
+
+    record VectorMatch(String id, Double distance, Map<String, Object> metadata) {}
+
+    /** Inclusive numeric bounds for a {@code where} entry; a null bound is open. */
+    record Range(Number min, Number max) {
+        public boolean contains(Number value) {
+            double v = value.doubleValue();
+            return (min == null || v >= min.doubleValue()) && (max == null || v <= max.doubleValue());
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.hostel.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ComplaintCursorTest {
+
+    @Test
+    void createdAtCursorRoundTrips() {
+        ComplaintCursor cursor = ComplaintCursor.byCreatedAt(LocalDateTime.of(2026, 3, 14, 9, 26, 53, 589_000_000), 42L);
+
+        ComplaintCursor decoded = ComplaintCursor.decode(cursor.encode());
+
+        assertEquals(cursor, decoded);
+        assertFalse(decoded.ranked());
+    }
+
+    @Test
+    void rankCursorsRoundTripAndKeepTheRankKind() {
+        ComplaintCursor fullText = ComplaintCursor.byRank(0.0607927f, false, 7L);
+        ComplaintCursor fuzzy = ComplaintCursor.byRank(0.35f, true, 8L);
+
+        assertEquals(fullText, ComplaintCursor.decode(fullText.encode()));
+        assertEquals(fuzzy, ComplaintCursor.decode(fuzzy.encode()));
+        assertTrue(ComplaintCursor.decode(fuzzy.encode()).fuzzy());
+    }
+
+    @Test
+    void tokensAreUrlSafe() {
+        String token = ComplaintCursor.byCreatedAt(LocalDateTime.of(2026, 1, 1, 0, 0), Long.MAX_VALUE).encode();
+
+        assertTrue(token.matches("[A-Za-z0-9_-]+"), token);
+    }
+
+    @Test
+    void blankTokenMeansFirstPage() {
+        assertNull(ComplaintCursor.decode(null));
+        assertNull(ComplaintCursor.decode(" "));
+    }
+
+    @Test
+    void rejectsMalformedTokens() {
+        assertThrows(IllegalArgumentException.class, () -> ComplaintCursor.decode("not base64!"));
+        assertThrows(IllegalArgumentException.class, () -> ComplaintCursor.decode(encode("x|1|2")));
+        assertThrows(IllegalArgumentException.class, () -> ComplaintCursor.decode(encode("t|yesterday|2")));
+        assertThrows(IllegalArgumentException.class, () -> ComplaintCursor.decode(encode("r|0.5")));
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,86 @@
+package com.hostel.service;
+
+import com.hostel.entity.Category;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ComplaintCategoryClassifierTest {
+
+    private final ChromaClient chromaClient = mock(ChromaClient.class);
+    private ComplaintCategoryClassifier classifier;
+
+    @BeforeEach
+    void setUp() {
+        classifier = new ComplaintCategoryClassifier(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(classifier, "chromaClient", chromaClient);
+        ReflectionTestUtils.setField(classifier, "enabled", true);
+        ReflectionTestUtils.setField(classifier, "k", 7);
+        ReflectionTestUtils.setField(classifier, "minNeighbors", 3);
+        ReflectionTestUtils.setField(classifier, "maxDistance", 0.3);
+        ReflectionTestUtils.setField(classifier, "threshold", 0.75);
+        ReflectionTestUtils.setField(classifier, "auditRate", 0.0);
+    }
+
+    @Test
+    void trustsCloseAgreeingNeighbours() {
+        neighbours(candidate("PLUMBING", 0.05), candidate("PLUMBING", 0.1), candidate("PLUMBING", 0.2),
+                candidate("ELECTRICAL", 0.9));
+
+        ComplaintCategoryClassifier.CategoryVote vote = classifier.vote("tap is leaking");
+
+        assertEquals(Category.PLUMBING, vote.category());
+        assertEquals(3, vote.neighbours());
+        assertEquals(1.0, vote.confidence(), 1e-9);
+        assertTrue(vote.categoryFromVote());
+    }
+
+    @Test
+    void farNeighboursDoNotVote() {
+        neighbours(candidate("PLUMBING", 0.8), candidate("PLUMBING", 0.9), candidate("PLUMBING", 1.2));
+
+        ComplaintCategoryClassifier.CategoryVote vote = classifier.vote("someone keeps shouting at night");
+
+        assertNull(vote.category());
+        assertFalse(vote.categoryFromVote());
+    }
+
+    @Test
+    void minNeighborsCountsOnlyCloseNeighbours() {
+        neighbours(candidate("CARPENTRY", 0.1), candidate("CARPENTRY", 0.2), candidate("CARPENTRY", 0.6),
+                candidate("CARPENTRY", 0.7));
+
+        ComplaintCategoryClassifier.CategoryVote vote = classifier.vote("cupboard hinge broke");
+
+        assertEquals(Category.CARPENTRY, vote.category());
+        assertEquals(2, vote.neighbours());
+        assertFalse(vote.categoryFromVote());
+    }
+
+    @Test
+    void neighboursWithoutDistanceDoNotVote() {
+        neighbours(candidate("RAGGING", null), candidate("RAGGING", null), candidate("RAGGING", null));
+
+        assertNull(classifier.vote("seniors bothering juniors").category());
+    }
+
+    private void neighbours(ChromaClient.QueryCandidate... candidates) {
+        when(chromaClient.queryCategories(anyString(), anyInt())).thenReturn(List.of(candidates));
+    }
+
+    private static ChromaClient.QueryCandidate candidate(String category, Double distance) {
+        return new ChromaClient.QueryCandidate(category, distance);
+    }
+}
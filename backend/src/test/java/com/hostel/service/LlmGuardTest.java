@@ -0,0 +1,223 @@
+package com.hostel.service;
+
+import com.hostel.config.PerHostConcurrencyLimiter;
+import com.hostel.exception.LlmUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LlmGuardTest {
+
+    private static final double CLOSED = 0;
+    private static final double OPEN = 2;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void opensAfterConsecutiveUpstreamFailuresAndFailsFast() {
+        LlmGuard guard = guard(8, 2, 60, 20, 2000);
+        fail(guard, new HttpServerErrorException(HttpStatus.BAD_GATEWAY));
+        assertEquals(CLOSED, gauge("llm.guard.circuit.state"));
+        fail(guard, new HttpServerErrorException(HttpStatus.BAD_GATEWAY));
+        assertEquals(OPEN, gauge("llm.guard.circuit.state"));
+
+        AtomicBoolean called = new AtomicBoolean();
+        LlmUnavailableException rejected = assertThrows(LlmUnavailableException.class,
+                () -> guard.call(() -> called.getAndSet(true), true));
+        assertFalse(called.get());
+        assertTrue(rejected.getRetryAfterSeconds() > 0);
+        assertEquals(1, rejections("circuit_open"));
+    }
+
+    @Test
+    void successfulTrialClosesTheCircuit() throws Exception {
+        LlmGuard guard = guard(8, 1, 0, 20, 2000);
+        fail(guard, new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE));
+        assertEquals(OPEN, gauge("llm.guard.circuit.state"));
+
+        // Only one trial call is let through while half-open
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        Future<String> trial = executor.submit(() -> guard.call(() -> {
+            started.countDown();
+            await(finish);
+            return "ok";
+        }, true));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertThrows(LlmUnavailableException.class, () -> guard.call(() -> "second", true));
+
+        finish.countDown();
+        assertEquals("ok", trial.get(5, TimeUnit.SECONDS));
+        assertEquals(CLOSED, gauge("llm.guard.circuit.state"));
+        assertEquals("next", guard.call(() -> "next", true));
+    }
+
+    @Test
+    void failedTrialReopensTheCircuit() {
+        LlmGuard guard = guard(8, 1, 0, 20, 2000);
+        fail(guard, new HttpServerErrorException(HttpStatus.BAD_GATEWAY));
+        fail(guard, new ResourceAccessException("timed out", new HttpTimeoutException("request timed out")));
+        assertEquals(OPEN, gauge("llm.guard.circuit.state"));
+    }
+
+    @Test
+    void localErrorsDoNotTripTheBreakerOrShrinkTheLimit() {
+        LlmGuard guard = guard(8, 1, 60, 20, 2000);
+        fail(guard, new IllegalArgumentException("AI response JSON parse failed"));
+        fail(guard, new HttpClientErrorException(HttpStatus.BAD_REQUEST));
+        fail(guard, new ResourceAccessException("busy",
+                new PerHostConcurrencyLimiter.PermitUnavailableException("Too many concurrent requests", null)));
+        assertEquals(CLOSED, gauge("llm.guard.circuit.state"));
+        assertEquals(8, gauge("llm.guard.limit"));
+    }
+
+    @Test
+    void rejectsImmediatelyWhenTheQueueIsFull() throws Exception {
+        LlmGuard guard = guard(1, 5, 60, 0, 2000);
+        CountDownLatch finish = new CountDownLatch(1);
+        Future<?> busy = occupy(guard, finish);
+
+        assertThrows(LlmUnavailableException.class, () -> guard.call(() -> "queued", true));
+        assertEquals(1, rejections("queue_full"));
+
+        finish.countDown();
+        busy.get(5, TimeUnit.SECONDS);
+        assertEquals("free", guard.call(() -> "free", true));
+    }
+
+    @Test
+    void rejectsQueuedCallsAfterTheQueueTimeout() throws Exception {
+        LlmGuard guard = guard(1, 5, 60, 1, 50);
+        CountDownLatch finish = new CountDownLatch(1);
+        Future<?> busy = occupy(guard, finish);
+
+        long started = System.nanoTime();
+        assertThrows(LlmUnavailableException.class, () -> guard.call(() -> "queued", true));
+        assertTrue(System.nanoTime() - started >= TimeUnit.MILLISECONDS.toNanos(50));
+        assertEquals(1, rejections("queue_timeout"));
+        assertEquals(0, gauge("llm.guard.queued"));
+
+        finish.countDown();
+        busy.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void limitGrowsAdditivelyAndBacksOffMultiplicatively() {
+        LlmGuard guard = new LlmGuard(registry, 4, 2, 5, 10_000, 0.5, 20, 2000, 100, 60, 5);
+        guard.call(() -> "fast", true);
+        assertEquals(4.25, gauge("llm.guard.limit"), 1e-9);
+
+        // Streamed answers do not move the limit on success
+        guard.call(() -> "stream", false);
+        assertEquals(4.25, gauge("llm.guard.limit"), 1e-9);
+
+        fail(guard, new HttpClientErrorException(HttpStatus.TOO_MANY_REQUESTS));
+        assertEquals(2.125, gauge("llm.guard.limit"), 1e-9);
+        fail(guard, new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR));
+        assertEquals(2, gauge("llm.guard.limit"), 1e-9);
+
+        for (int i = 0; i < 50; i++) {
+            guard.call(() -> "fast", true);
+        }
+        assertEquals(5, gauge("llm.guard.limit"), 1e-9);
+    }
+
+    @Test
+    void slowCallsBackOff() {
+        LlmGuard guard = new LlmGuard(registry, 4, 2, 8, 0, 0.5, 20, 2000, 5, 60, 5);
+        guard.call(() -> {
+            sleep(5);
+            return "slow";
+        }, true);
+        assertEquals(2, gauge("llm.guard.limit"), 1e-9);
+    }
+
+    @Test
+    void classifiesUpstreamFailures() {
+        assertTrue(LlmGuard.isUpstreamFailure(new HttpServerErrorException(HttpStatus.BAD_GATEWAY)));
+        assertTrue(LlmGuard.isUpstreamFailure(new HttpClientErrorException(HttpStatus.TOO_MANY_REQUESTS)));
+        assertTrue(LlmGuard.isUpstreamFailure(new ResourceAccessException("timeout",
+                new IOException(new HttpTimeoutException("request timed out")))));
+        assertTrue(LlmGuard.isUpstreamFailure(new ResourceAccessException("read", new SocketTimeoutException())));
+        assertTrue(LlmGuard.isUpstreamFailure(new ResourceAccessException("connect", new ConnectException())));
+
+        assertFalse(LlmGuard.isUpstreamFailure(new HttpClientErrorException(HttpStatus.UNAUTHORIZED)));
+        assertFalse(LlmGuard.isUpstreamFailure(new ResourceAccessException("busy",
+                new PerHostConcurrencyLimiter.PermitUnavailableException("Too many concurrent requests", null))));
+        assertFalse(LlmGuard.isUpstreamFailure(new LlmUnavailableException("busy", 5)));
+        assertFalse(LlmGuard.isUpstreamFailure(new IllegalStateException("client disconnected")));
+    }
+
+    private LlmGuard guard(int limit, int failureThreshold, long openSeconds, int maxQueue, long queueTimeoutMs) {
+        return new LlmGuard(registry, limit, 1, Math.max(limit, 1), 10_000, 0.8, maxQueue, queueTimeoutMs,
+                failureThreshold, openSeconds, 5);
+    }
+
+    private Future<?> occupy(LlmGuard guard, CountDownLatch finish) throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        Future<?> busy = executor.submit(() -> guard.call(() -> {
+            started.countDown();
+            await(finish);
+            return null;
+        }, false));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        return busy;
+    }
+
+    private static void fail(LlmGuard guard, RuntimeException failure) {
+        RuntimeException thrown = assertThrows(RuntimeException.class, () -> guard.call(() -> {
+            throw failure;
+        }, true));
+        assertEquals(failure, thrown);
+    }
+
+    private double gauge(String name) {
+        return registry.get(name).gauge().value();
+    }
+
+    private double rejections(String reason) {
+        return registry.get("llm.guard.rejected").tag("reason", reason).counter().count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
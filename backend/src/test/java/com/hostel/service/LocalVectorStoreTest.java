@@ -0,0 +1,161 @@
+package com.hostel.service;
+
+import com.hostel.dto.EmbeddingVector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LocalVectorStoreTest {
+
+    @TempDir
+    Path dir;
+
+    private LocalVectorStore store;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        store = open();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        store.close();
+    }
+
+    @Test
+    void whereMatchesEqualityCollectionsAndRanges() {
+        store.upsert(List.of(
+                record("1", 1, 0, Map.of("category", "WATER", "created_at", 100)),
+                record("2", 1, 0.1f, Map.of("category", "ELECTRICITY", "created_at", 200)),
+                record("3", 1, 0.2f, Map.of("category", "WIFI", "created_at", 300))));
+
+        assertEquals(List.of("1"), ids(Map.of("category", "WATER")));
+        assertEquals(List.of("1", "3"), ids(Map.of("category", List.of("WATER", "WIFI"))));
+        assertEquals(List.of("2", "3"), ids(Map.of("created_at", new VectorStore.Range(150, null))));
+        assertEquals(List.of("2"), ids(Map.of("created_at", new VectorStore.Range(150, 250),
+                "category", List.of("ELECTRICITY", "WATER"))));
+        assertEquals(List.of(), ids(Map.of("missing", "x")));
+        assertEquals(List.of("1", "2", "3"), ids(Map.of()));
+    }
+
+    @Test
+    void reopenRestoresVectorsAndMetadata() throws IOException {
+        store.upsert(List.of(record("1", 1, 0, Map.of("status", "OPEN", "created_at", 100)),
+                record("2", 0, 1, Map.of("status", "RESOLVED", "created_at", 200))));
+        store.close();
+        store = open();
+
+        List<VectorStore.VectorMatch> matches = store.query(vector(1, 0), 2, Map.of());
+        assertEquals("1", matches.get(0).id());
+        assertEquals(0.0, matches.get(0).distance(), 1e-6);
+        assertEquals(1.0, matches.get(1).distance(), 1e-6);
+        assertEquals(List.of("2"), ids(Map.of("status", "RESOLVED", "created_at", new VectorStore.Range(200, 200))));
+    }
+
+    @Test
+    void replaySkipsEntriesPastTheCommittedCount() throws IOException {
+        store.upsert(List.of(record("1", 1, 0, Map.of())));
+        store.close();
+        // Entry log write that was not followed by the vector count update
+        Files.writeString(dir.resolve("entries.jsonl"), "{\"id\":\"9\",\"slot\":5,\"metadata\":{}}\nnot json\n",
+                StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        store = open();
+
+        assertEquals(List.of("1"), ids(Map.of()));
+    }
+
+    @Test
+    void deleteRemovesRecordsAndSurvivesReopen() throws IOException {
+        store.upsert(List.of(record("1", 1, 0, Map.of()), record("2", 0, 1, Map.of())));
+        store.delete(List.of("1", "unknown"));
+        assertEquals(List.of("2"), ids(Map.of()));
+
+        store.close();
+        store = open();
+        assertEquals(List.of("2"), ids(Map.of()));
+
+        // Freed slot is reused rather than growing the vector file
+        long size = Files.size(dir.resolve("vectors.f32"));
+        store.upsert(List.of(record("3", 1, 1, Map.of())));
+        assertEquals(size, Files.size(dir.resolve("vectors.f32")));
+        assertEquals(List.of("2", "3"), ids(Map.of()).stream().sorted().toList());
+    }
+
+    @Test
+    void reopenCompactsTheEntryLog() throws IOException {
+        for (int i = 0; i < 5; i++) {
+            store.upsert(List.of(record("1", 1, i, Map.of("version", i))));
+        }
+        store.upsert(List.of(record("2", 0, 1, Map.of())));
+        store.delete(List.of("2"));
+        store.close();
+        assertEquals(7, lines());
+
+        store = open();
+        assertEquals(1, lines());
+        List<VectorStore.VectorMatch> matches = store.query(vector(1, 4), 5, Map.of());
+        assertEquals(1, matches.size());
+        assertEquals(4, ((Number) matches.get(0).metadata().get("version")).intValue());
+    }
+
+    @Test
+    void compactsWhileRunningOnceTheLogOutgrowsTheRatio() throws IOException {
+        for (int i = 0; i < 3 * 1024 + 1; i++) {
+            store.upsert(List.of(record("1", 1, i, Map.of())));
+        }
+        assertTrue(lines() < 10, "log should have been compacted");
+        assertEquals(List.of("1"), ids(Map.of()));
+    }
+
+    @Test
+    void recreateEmptiesTheIndexAndAcceptsNewDimensions() throws IOException {
+        store.upsert(List.of(record("1", 1, 0, Map.of()), record("2", 0, 1, Map.of())));
+        store.recreateCollection();
+        assertEquals(List.of(), ids(Map.of()));
+
+        store.upsert(List.of(new VectorStore.VectorRecord("3", EmbeddingVector.of(new float[] {1, 0, 0}), "doc 3", Map.of())));
+        store.close();
+        store = open();
+
+        List<VectorStore.VectorMatch> matches = store.query(EmbeddingVector.of(new float[] {1, 0, 0}), 10, Map.of());
+        assertEquals(List.of("3"), matches.stream().map(VectorStore.VectorMatch::id).toList());
+        assertEquals(1, lines());
+    }
+
+    private LocalVectorStore open() throws IOException {
+        LocalVectorStore opened = new LocalVectorStore();
+        ReflectionTestUtils.setField(opened, "dataDir", dir.toString());
+        ReflectionTestUtils.setField(opened, "compactionRatio", 3);
+        opened.open();
+        return opened;
+    }
+
+    private List<String> ids(Map<String, Object> where) {
+        return store.query(vector(1, 0), 10, where).stream().map(VectorStore.VectorMatch::id).toList();
+    }
+
+    private long lines() throws IOException {
+        return Files.readAllLines(dir.resolve("entries.jsonl")).stream().filter(line -> !line.isBlank()).count();
+    }
+
+    private static VectorStore.VectorRecord record(String id, float x, float y, Map<String, Object> metadata) {
+        return new VectorStore.VectorRecord(id, vector(x, y), "doc " + id, metadata);
+    }
+
+    private static EmbeddingVector vector(float x, float y) {
+        return EmbeddingVector.of(new float[] {x, y});
+    }
+}
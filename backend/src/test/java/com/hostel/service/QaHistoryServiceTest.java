@@ -0,0 +1,73 @@
+package com.hostel.service;
+
+import com.hostel.entity.QaHistory;
+import com.hostel.repository.QaDailyRollupRepository;
+import com.hostel.repository.QaHistoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class QaHistoryServiceTest {
+
+    private final QaHistoryRepository historyRepository = mock(QaHistoryRepository.class);
+    private final QaDailyRollupRepository rollupRepository = mock(QaDailyRollupRepository.class);
+    private final QaHistoryService service = new QaHistoryService();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "qaHistoryRepository", historyRepository);
+        ReflectionTestUtils.setField(service, "qaDailyRollupRepository", rollupRepository);
+    }
+
+    @Test
+    void answersAreNotErrorsWhateverTheirText() {
+        service.record(7L, false, "why is the tap leaking?", "Error calling LLM API is what the student wrote", 120);
+
+        QaHistory saved = savedHistory();
+        assertFalse(saved.isError());
+        assertEquals(120L, saved.getLatencyMs());
+        verify(rollupRepository).increment(LocalDate.now(), 7L, false, 0, 120);
+    }
+
+    @Test
+    void failuresAreRecordedAsErrorsWithTheirLatency() {
+        service.recordFailure(3L, true, "open complaints?", new RuntimeException("LLM API error: HTTP 503"), 2500);
+
+        QaHistory saved = savedHistory();
+        assertTrue(saved.isError());
+        assertEquals("Error: LLM API error: HTTP 503", saved.getAnswer());
+        assertEquals(2500L, saved.getLatencyMs());
+        verify(rollupRepository).increment(LocalDate.now(), 3L, true, 1, 2500);
+    }
+
+    @Test
+    void longFailureMessagesFitTheAnswerColumn() {
+        service.recordFailure(3L, false, "q", new RuntimeException("x".repeat(5000)), 1);
+
+        assertEquals(4000, savedHistory().getAnswer().length());
+    }
+
+    @Test
+    void skipsAnonymousQuestions() {
+        service.recordFailure(null, true, "q", new IllegalStateException(), 1);
+
+        verify(historyRepository, never()).save(any());
+    }
+
+    private QaHistory savedHistory() {
+        ArgumentCaptor<QaHistory> captor = ArgumentCaptor.forClass(QaHistory.class);
+        verify(historyRepository).save(captor.capture());
+        return captor.getValue();
+    }
+}
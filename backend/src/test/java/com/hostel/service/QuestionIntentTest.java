@@ -0,0 +1,90 @@
+package com.hostel.service;
+
+import com.hostel.entity.Category;
+import com.hostel.entity.Status;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QuestionIntentTest {
+
+    // A Wednesday
+    private static final LocalDate TODAY = LocalDate.of(2026, 10, 14);
+
+    @Test
+    void readsCategoryStatusAndLastWeek() {
+        QuestionIntent intent = QuestionIntent.parse("Open plumbing complaints last week", TODAY);
+
+        assertEquals(Set.of(Category.PLUMBING), intent.categories());
+        assertEquals(Set.of(Status.OPEN), intent.statuses());
+        assertEquals(LocalDateTime.of(2026, 10, 5, 0, 0), intent.from());
+        assertEquals(LocalDateTime.of(2026, 10, 12, 0, 0), intent.to());
+        assertTrue(intent.hasFilters());
+        assertNull(intent.textQuery());
+    }
+
+    @Test
+    void readsDateWindows() {
+        assertWindow("anything today", TODAY, null);
+        assertWindow("what broke yesterday", TODAY.minusDays(1), TODAY);
+        assertWindow("complaints in the past 10 days", TODAY.minusDays(10), null);
+        assertWindow("last 1 day", TODAY.minusDays(1), null);
+        assertWindow("this week", LocalDate.of(2026, 10, 12), null);
+        assertWindow("this month", LocalDate.of(2026, 10, 1), null);
+        assertWindow("last month", LocalDate.of(2026, 9, 1), LocalDate.of(2026, 10, 1));
+        assertWindow("fan noise", null, null);
+    }
+
+    @Test
+    void lastNDaysWinsOverOtherPhrases() {
+        assertWindow("resolved last 3 days, not just today", TODAY.minusDays(3), null);
+    }
+
+    @Test
+    void readsStatuses() {
+        assertEquals(Set.of(Status.OPEN), QuestionIntent.parse("unresolved electrical issues", TODAY).statuses());
+        assertEquals(Set.of(Status.RESOLVED), QuestionIntent.parse("which were fixed?", TODAY).statuses());
+        assertEquals(Set.of(Status.IN_PROGRESS), QuestionIntent.parse("anything in progress", TODAY).statuses());
+        assertEquals(Set.of(Status.OPEN, Status.RESOLVED),
+                QuestionIntent.parse("pending or closed carpentry requests", TODAY).statuses());
+    }
+
+    @Test
+    void keepsContentWordsForFullTextSearch() {
+        QuestionIntent intent = QuestionIntent.parse("How many complaints about the water heater in block B?", TODAY);
+
+        assertTrue(intent.aggregate());
+        assertEquals(List.of("water", "heater", "block"), intent.keywords());
+        assertEquals("water or heater or block", intent.textQuery());
+        assertFalse(intent.hasFilters());
+    }
+
+    @Test
+    void detectsAggregateQuestions() {
+        assertTrue(QuestionIntent.parse("count the ragging reports", TODAY).aggregate());
+        assertTrue(QuestionIntent.parse("show me all open complaints", TODAY).aggregate());
+        assertFalse(QuestionIntent.parse("why is my fan broken", TODAY).aggregate());
+    }
+
+    @Test
+    void handlesMissingQuestion() {
+        QuestionIntent intent = QuestionIntent.parse(null, TODAY);
+
+        assertFalse(intent.hasFilters());
+        assertNull(intent.textQuery());
+    }
+
+    private static void assertWindow(String question, LocalDate from, LocalDate to) {
+        QuestionIntent intent = QuestionIntent.parse(question, TODAY);
+        assertEquals(from == null ? null : from.atStartOfDay(), intent.from(), question);
+        assertEquals(to == null ? null : to.atStartOfDay(), intent.to(), question);
+    }
+}